@@ -25,15 +25,37 @@
 package net.jadedmc.chatactions;
 
 import net.jadedmc.chatactions.actions.ActionManager;
+import net.jadedmc.chatactions.audit.AuditLog;
+import net.jadedmc.chatactions.commands.ChatActionsCMD;
+import net.jadedmc.chatactions.listeners.EntityDamageByEntityListener;
+import net.jadedmc.chatactions.listeners.PlayerChangedWorldListener;
+import net.jadedmc.chatactions.listeners.PlayerCommandSendListener;
+import net.jadedmc.chatactions.listeners.PlayerJoinListener;
+import net.jadedmc.chatactions.listeners.PlayerQuitListener;
+import net.jadedmc.chatactions.messages.MessagePool;
+import net.jadedmc.chatactions.placeholders.ChatActionsExpansion;
+import net.jadedmc.chatactions.placeholders.PlaceholderResolver;
+import net.jadedmc.chatactions.queue.QueueManager;
+import net.jadedmc.chatactions.reciprocal.ReciprocalManager;
+import net.jadedmc.chatactions.sequences.SequenceManager;
+import net.jadedmc.chatactions.statistics.StatisticsManager;
 import net.jadedmc.chatactions.utils.ChatUtils;
 import net.jadedmc.chatactions.utils.CommandUtils;
+import net.jadedmc.chatactions.utils.TimingWheel;
 import org.bstats.bukkit.Metrics;
 import org.bukkit.plugin.java.JavaPlugin;
 
 public final class ChatActionsPlugin extends JavaPlugin {
     private HookManager hookManager;
+    private PlaceholderResolver placeholderResolver;
     private ConfigManager configManager;
     private ActionManager actionManager;
+    private QueueManager queueManager;
+    private StatisticsManager statisticsManager;
+    private AuditLog auditLog;
+    private SequenceManager sequenceManager;
+    private ReciprocalManager reciprocalManager;
+    private TimingWheel timingWheel;
 
     @Override
     public void onEnable() {
@@ -43,7 +65,32 @@ public final class ChatActionsPlugin extends JavaPlugin {
         new Metrics(this, 21818);
         configManager = new ConfigManager(this);
         hookManager = new HookManager();
+        placeholderResolver = new PlaceholderResolver(this);
         actionManager = new ActionManager(this);
+        queueManager = new QueueManager(this);
+        statisticsManager = new StatisticsManager(this);
+        auditLog = new AuditLog(this);
+        sequenceManager = new SequenceManager(this);
+        reciprocalManager = new ReciprocalManager(this);
+
+        // Runs every delayed task in the plugin from a single scheduler task.
+        timingWheel = new TimingWheel(512);
+        getServer().getScheduler().runTaskTimer(this, timingWheel::tick, 1, 1);
+
+        // Registers the plugin's commands.
+        getCommand("chatactions").setExecutor(new ChatActionsCMD(this));
+
+        // Registers the plugin's listeners.
+        getServer().getPluginManager().registerEvents(new EntityDamageByEntityListener(), this);
+        getServer().getPluginManager().registerEvents(new PlayerChangedWorldListener(this), this);
+        getServer().getPluginManager().registerEvents(new PlayerCommandSendListener(this), this);
+        getServer().getPluginManager().registerEvents(new PlayerJoinListener(this), this);
+        getServer().getPluginManager().registerEvents(new PlayerQuitListener(this), this);
+
+        // Registers the plugin's placeholders if PlaceholderAPI is installed.
+        if(hookManager.usePlaceholderAPI()) {
+            new ChatActionsExpansion(this).register();
+        }
 
         // Enables ChatUtils.
         ChatUtils.enable(this);
@@ -51,7 +98,20 @@ public final class ChatActionsPlugin extends JavaPlugin {
 
     @Override
     public void onDisable() {
+        queueManager.shutdown();
+        statisticsManager.shutdown();
+        auditLog.shutdown();
+        placeholderResolver.shutdown();
         ChatUtils.disable();
+        MessagePool.clear();
+    }
+
+    public ActionManager getActionManager() {
+        return actionManager;
+    }
+
+    public AuditLog getAuditLog() {
+        return auditLog;
     }
 
     public ConfigManager getConfigManager() {
@@ -61,4 +121,28 @@ public final class ChatActionsPlugin extends JavaPlugin {
     public HookManager getHookManager() {
         return hookManager;
     }
+
+    public PlaceholderResolver getPlaceholderResolver() {
+        return placeholderResolver;
+    }
+
+    public QueueManager getQueueManager() {
+        return queueManager;
+    }
+
+    public ReciprocalManager getReciprocalManager() {
+        return reciprocalManager;
+    }
+
+    public SequenceManager getSequenceManager() {
+        return sequenceManager;
+    }
+
+    public StatisticsManager getStatisticsManager() {
+        return statisticsManager;
+    }
+
+    public TimingWheel getTimingWheel() {
+        return timingWheel;
+    }
 }
\ No newline at end of file
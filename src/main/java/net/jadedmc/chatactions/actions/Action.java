@@ -24,99 +24,125 @@
  */
 package net.jadedmc.chatactions.actions;
 
+import net.jadedmc.chatactions.HookManager;
+import net.jadedmc.chatactions.conditions.ActionConditions;
+import net.jadedmc.chatactions.messages.LocalizedMessage;
+import net.jadedmc.chatactions.messages.MessagePool;
+import net.jadedmc.chatactions.messages.WeightedMessage;
+import net.jadedmc.chatactions.sequences.SequenceStep;
 import net.jadedmc.chatactions.utils.CommandUtils;
+import org.bukkit.Bukkit;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.Collection;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * Represents an Action that can be performed by a player.
  */
 public class Action {
-    private final Collection<String> aliases = new HashSet<>();
-    private final String senderMessage;
-    private final String targetMessage;
-    private final String globalMessage;
-    private final String noTargetMessage;
-    private final String permissionMessage;
-    private final String helpMessage;
-    private final String usageMessage;
+    private static final String[] NONE = new String[0];
+
+    private final String[] aliases;
+    private final String[] worlds;
+    private final String[] groups;
+    private final List<SequenceStep> sequence = new ArrayList<>();
+    private final LocalizedMessage senderMessage;
+    private final LocalizedMessage targetMessage;
+    private final LocalizedMessage globalMessage;
+    private final LocalizedMessage noTargetMessage;
+    private final LocalizedMessage permissionMessage;
+    private final LocalizedMessage helpMessage;
+    private final LocalizedMessage usageMessage;
+    private final LocalizedMessage conditionMessage;
+    private final LocalizedMessage reciprocalMessage;
+    private final LocalizedMessage scopeMessage;
+    private final ActionConditions conditions;
     private final int range;
+    private final int reciprocalTimeout;
     private final boolean requireTarget;
+    private final boolean queueOffline;
     private final String requiredPermission;
     private final String name;
+    private final int id;
 
     /**
      * Creates an action from a given configuration.
+     * @param hookManager Hook Manager, used by conditions that depend on other plugins.
+     * @param id Id of the action, unique among the loaded actions.
+     * @param name Name of the action.
      * @param config Configuration Section to load the action from.
      */
-    public Action(@NotNull final String name, @NotNull final ConfigurationSection config) {
+    public Action(@NotNull final HookManager hookManager, final int id, @NotNull final String name, @NotNull final ConfigurationSection config) {
+        this.id = id;
         this.name = name;
 
         // Load the command aliases from the config.
-        if(config.isSet("aliases")) {
-            this.aliases.addAll(config.getStringList("aliases"));
+        this.aliases = loadList(config, "aliases", false);
+
+        // Find the per-locale message overrides, which are compiled along with each message.
+        final Map<String, ConfigurationSection> locales = new HashMap<>();
+        final ConfigurationSection localesConfig = config.getConfigurationSection("locales");
+        if(localesConfig != null) {
+            for(final String locale : localesConfig.getKeys(false)) {
+                final ConfigurationSection localeConfig = localesConfig.getConfigurationSection(locale);
+
+                if(localeConfig != null) {
+                    locales.put(locale.toLowerCase(Locale.ROOT), localeConfig);
+                }
+            }
         }
 
         // Load the action's sender message.
-        if(config.isSet("messages.sender-message")) {
-            this.senderMessage = config.getString("messages.sender-message");
-        }
-        else {
-            this.senderMessage = "";
-        }
+        this.senderMessage = loadMessage(config, locales, "sender-message");
 
         // Load the action's target message.
-        if(config.isSet("messages.target-message")) {
-            this.targetMessage = config.getString("messages.target-message");
-        }
-        else {
-            this.targetMessage = "";
-        }
+        this.targetMessage = loadMessage(config, locales, "target-message");
 
         // Load the global message of the action.
-        if(config.isSet("messages.global-message")) {
-            this.globalMessage = config.getString("messages.global-message");
-        }
-        else {
-            this.globalMessage = "";
-        }
+        this.globalMessage = loadMessage(config, locales, "global-message");
 
         // Load the no-target global message of the action.
-        if(config.isSet("messages.no-target-message")) {
-            this.noTargetMessage = config.getString("messages.no-target-message");
-        }
-        else {
-            this.noTargetMessage = "";
-        }
+        this.noTargetMessage = loadMessage(config, locales, "no-target-message");
 
         // Loads the permission message of the action.
-        if(config.isSet("messages.permission-message")) {
-            this.permissionMessage = config.getString("messages.permission-message");
-        }
-        else {
-            this.permissionMessage = "";
-        }
+        this.permissionMessage = loadMessage(config, locales, "permission-message");
 
         // Loads the help message of the action.
-        if(config.isSet("messages.help-message")) {
-            this.helpMessage = config.getString("messages.help-message");
+        this.helpMessage = loadMessage(config, locales, "help-message");
+
+        // Loads the usage message of the action.
+        this.usageMessage = loadMessage(config, locales, "usage-message");
+
+        // Loads the message sent when the action's conditions are not met.
+        if(config.isSet("messages.condition-message")) {
+            this.conditionMessage = loadMessage(config, locales, "condition-message");
         }
         else {
-            this.helpMessage = "";
+            this.conditionMessage = MessagePool.localized(WeightedMessage.single("<red><bold>Error</bold> <dark_gray>» <red>You cannot use that right now!"), loadOverrides(locales, "condition-message"));
         }
 
-        // Loads the usage message of the action.
-        if(config.isSet("messages.usage-message")) {
-            this.usageMessage = config.getString("messages.usage-message");
+        // Loads the message sent when a reciprocal action is returned.
+        this.reciprocalMessage = loadMessage(config, locales, "reciprocal-message");
+
+        // Loads the message sent when the action is used outside of its worlds or groups.
+        if(config.isSet("messages.scope-message")) {
+            this.scopeMessage = loadMessage(config, locales, "scope-message");
         }
         else {
-            this.usageMessage = "";
+            this.scopeMessage = MessagePool.localized(WeightedMessage.single("<red><bold>Error</bold> <dark_gray>» <red>You cannot use that here!"), loadOverrides(locales, "scope-message"));
         }
 
+        // Compiles the conditions that must be met to use the action.
+        this.conditions = new ActionConditions(hookManager, name, config.getConfigurationSection("conditions"));
+
         // Load the configured range.
         if(config.isSet("range")) {
             this.range = config.getInt("range");
@@ -133,6 +159,33 @@ public class Action {
             this.requireTarget = true;
         }
 
+        // Get if the action should be saved for offline targets.
+        if(config.isSet("queue-offline")) {
+            this.queueOffline = config.getBoolean("queue-offline");
+        }
+        else {
+            this.queueOffline = false;
+        }
+
+        // Get how long (in seconds) the target has to return the action.
+        if(config.isSet("reciprocal-timeout")) {
+            this.reciprocalTimeout = Math.max(0, config.getInt("reciprocal-timeout"));
+        }
+        else {
+            this.reciprocalTimeout = 0;
+        }
+
+        // Load the worlds and groups the action is limited to.
+        // Worlds are only checked through the scope, so the command can be hidden in other worlds.
+        if(!config.isSet("scope.worlds") && config.isSet("conditions.worlds")) {
+            Bukkit.getLogger().warning("conditions.worlds in action " + name + " has moved to scope.worlds.");
+            this.worlds = loadList(config, "conditions.worlds", false);
+        }
+        else {
+            this.worlds = loadList(config, "scope.worlds", false);
+        }
+        this.groups = loadList(config, "scope.groups", true);
+
         // Get the required permission of the action.
         if(config.isSet("required-permission")) {
             this.requiredPermission = config.getString("required-permission");
@@ -141,6 +194,18 @@ public class Action {
             this.requiredPermission = "";
         }
 
+        // Load the steps that run after the action is used.
+        if(config.isList("sequence")) {
+            for(final Map<?, ?> stepConfig : config.getMapList("sequence")) {
+                try {
+                    this.sequence.add(new SequenceStep(stepConfig));
+                }
+                catch (IllegalArgumentException exception) {
+                    Bukkit.getLogger().warning("Skipping invalid sequence step in action " + name + ": " + exception.getMessage());
+                }
+            }
+        }
+
         // Registers the action's command.
         CommandUtils.registerCommand(this);
     }
@@ -164,37 +229,76 @@ public class Action {
      * @return Action aliases.
      */
     @NotNull
-    public Collection<String> getAliases() {
+    public String[] getAliases() {
         return this.aliases;
     }
 
+    /**
+     * Gets the message sent when the action's conditions are not met.
+     * @param locale Locale of the player receiving the message, null for the default message.
+     * @return Condition message.
+     */
+    @NotNull
+    public String getConditionMessage(@Nullable final String locale) {
+        return this.conditionMessage.get(locale).pick().getSource();
+    }
+
+    /**
+     * Gets the conditions that must be met to use the action.
+     * @return Action conditions.
+     */
+    @NotNull
+    public ActionConditions getConditions() {
+        return this.conditions;
+    }
+
     /**
      * Gets the global message.
      * @return Global message.
      */
     @NotNull
-    public String getGlobalMessage() {
+    public LocalizedMessage getGlobalMessage() {
         return this.globalMessage;
     }
 
     /**
      * Gets the global message with placeholders parsed.
+     * @param locale Locale of the players receiving the message, null for the default message.
      * @param player Sender of the action.
-     * @param target Target of the action.
+     * @param targetNames Name, or list of names, of the targets of the action.
      * @return Global message.
      */
     @NotNull
-    public String getGlobalMessage(@NotNull final Player player, @NotNull final Player target) {
-        return this.globalMessage.replace("%sender%", player.getName()).replace("%target%", target.getName());
+    public String getGlobalMessage(@Nullable final String locale, @NotNull final Player player, @NotNull final String targetNames) {
+        return this.globalMessage.get(locale).pick().render(player.getName(), targetNames);
     }
 
     /**
      * Gets the action help message.
+     * @param locale Locale of the player receiving the message, null for the default message.
      * @return Help message.
      */
     @NotNull
-    public String getHelpMessage() {
-        return this.helpMessage;
+    public String getHelpMessage(@Nullable final String locale) {
+        return this.helpMessage.get(locale).pick().getSource();
+    }
+
+    /**
+     * Gets the groups the action is limited to.
+     * Players are in a group if they have the group.[name] permission.
+     * @return Action groups, empty if everyone can use it.
+     */
+    @NotNull
+    public String[] getGroups() {
+        return this.groups;
+    }
+
+    /**
+     * Gets the id of the action, used to look it up in indexes.
+     * @return Action id.
+     */
+    public int getId() {
+        return this.id;
     }
 
     /**
@@ -208,21 +312,23 @@ public class Action {
 
     /**
      * Gets the global no-target message with placeholders parsed.
+     * @param locale Locale of the players receiving the message, null for the default message.
      * @param player Sender of the action.
      * @return no-target message.
      */
     @NotNull
-    public String getNoTargetMessage(@NotNull final Player player) {
-        return this.noTargetMessage.replace("%sender%", player.getName());
+    public String getNoTargetMessage(@Nullable final String locale, @NotNull final Player player) {
+        return this.noTargetMessage.get(locale).pick().render(player.getName(), "");
     }
 
     /**
      * Gets the action's permission message.
+     * @param locale Locale of the player receiving the message, null for the default message.
      * @return Permission message.
      */
     @NotNull
-    public String getPermissionMessage() {
-        return permissionMessage;
+    public String getPermissionMessage(@Nullable final String locale) {
+        return this.permissionMessage.get(locale).pick().getSource();
     }
 
     /**
@@ -233,24 +339,63 @@ public class Action {
         return this.range;
     }
 
+    /**
+     * Gets the steps that run after the action is used.
+     * @return Action sequence, empty if there isn't one.
+     */
+    @NotNull
+    public List<SequenceStep> getSequence() {
+        return this.sequence;
+    }
+
+    /**
+     * Gets the message sent when a reciprocal action is returned, with placeholders parsed.
+     * @param locale Locale of the players receiving the message, null for the default message.
+     * @param requester Player who used the action first.
+     * @param responder Player who returned the action.
+     * @return Reciprocal message.
+     */
+    @NotNull
+    public String getReciprocalMessage(@Nullable final String locale, @NotNull final Player requester, @NotNull final Player responder) {
+        return this.reciprocalMessage.get(locale).pick().render(requester.getName(), responder.getName());
+    }
+
+    /**
+     * Gets how long the target of the action has to return it.
+     * @return Time in seconds, 0 if the action is not reciprocal.
+     */
+    public int getReciprocalTimeout() {
+        return this.reciprocalTimeout;
+    }
+
+    /**
+     * Gets the message sent when the action is used outside of its worlds or groups.
+     * @param locale Locale of the player receiving the message, null for the default message.
+     * @return Scope message.
+     */
+    @NotNull
+    public String getScopeMessage(@Nullable final String locale) {
+        return this.scopeMessage.get(locale).pick().getSource();
+    }
+
     /**
      * Gets the message that should be sent to the sender.
      * @return Sender message.
      */
     @NotNull
-    public String getSenderMessage() {
+    public LocalizedMessage getSenderMessage() {
         return this.senderMessage;
     }
 
     /**
-     * Gets the message that should be sent to the sender, with placeholders parsed.
+     * Gets the message that should be sent to the sender, in their locale, with placeholders parsed.
      * @param sender Sender of the action.
-     * @param target Target of the action.
+     * @param targetNames Name, or list of names, of the targets of the action.
      * @return Sender message.
      */
     @NotNull
-    public String getSenderMessage(@NotNull final Player sender, @NotNull final Player target) {
-        return this.senderMessage.replace("%sender%", sender.getName()).replace("%target%", target.getName());
+    public String getSenderMessage(@NotNull final Player sender, @NotNull final String targetNames) {
+        return this.senderMessage.get(sender.getLocale()).pick().render(sender.getName(), targetNames);
     }
 
     /**
@@ -258,28 +403,59 @@ public class Action {
      * @return Target message.
      */
     @NotNull
-    public String getTargetMessage() {
+    public LocalizedMessage getTargetMessage() {
         return this.targetMessage;
     }
 
     /**
-     * Gets the message that should be sent to the target, with placeholders parsed.
-     * @param sender Sender of the action.
+     * Gets the message that should be sent to the target, in their locale, with placeholders parsed.
+     * Used when the sender may no longer be online.
+     * @param senderName Name of the sender of the action.
      * @param target Target of the action.
      * @return Target message.
      */
     @NotNull
-    public String getTargetMessage(@NotNull final Player sender, @NotNull final Player target) {
-        return this.targetMessage.replace("%sender%", sender.getName()).replace("%target%", target.getName());
+    public String getTargetMessage(@NotNull final String senderName, @NotNull final Player target) {
+        return this.getTargetMessage(target.getLocale(), senderName, target.getName());
+    }
+
+    /**
+     * Gets the message that should be sent to the targets, with placeholders parsed.
+     * @param locale Locale of the targets receiving the message, null for the default message.
+     * @param senderName Name of the sender of the action.
+     * @param targetNames Name, or list of names, of the targets of the action.
+     * @return Target message.
+     */
+    @NotNull
+    public String getTargetMessage(@Nullable final String locale, @NotNull final String senderName, @NotNull final String targetNames) {
+        return this.targetMessage.get(locale).pick().render(senderName, targetNames);
     }
 
     /**
      * Gets the usage message of the action.
+     * @param locale Locale of the player receiving the message, null for the default message.
      * @return Usage message.
      */
     @NotNull
-    public String getUsageMessage() {
-        return this.usageMessage;
+    public String getUsageMessage(@Nullable final String locale) {
+        return this.usageMessage.get(locale).pick().getSource();
+    }
+
+    /**
+     * Gets the worlds the action is limited to.
+     * @return Action worlds, empty if it can be used in every world.
+     */
+    @NotNull
+    public String[] getWorlds() {
+        return this.worlds;
+    }
+
+    /**
+     * Get if the action can be returned by its target for a combined message.
+     * @return Whether the action is reciprocal.
+     */
+    public boolean isReciprocal() {
+        return this.reciprocalTimeout > 0 && !this.reciprocalMessage.isEmpty();
     }
 
     /**
@@ -289,4 +465,76 @@ public class Action {
     public boolean requiresTarget() {
         return this.requireTarget;
     }
+
+    /**
+     * Get if the action should be saved and delivered later when the target is offline.
+     * @return true if the action can be queued for offline players.
+     */
+    public boolean queuesOffline() {
+        return this.queueOffline;
+    }
+
+    /**
+     * Loads a message slot, along with its overrides for each locale.
+     * @param config Configuration Section of the action.
+     * @param locales Configured locale sections, by lowercase locale.
+     * @param key Key of the message, like "sender-message".
+     * @return Loaded message.
+     */
+    @NotNull
+    private static LocalizedMessage loadMessage(@NotNull final ConfigurationSection config, @NotNull final Map<String, ConfigurationSection> locales, @NotNull final String key) {
+        return MessagePool.localized(WeightedMessage.load(config, "messages." + key), loadOverrides(locales, key));
+    }
+
+    /**
+     * Compiles the overrides of a message for every locale that sets it.
+     * @param locales Configured locale sections, by lowercase locale.
+     * @param key Key of the message inside each locale section, like "sender-message".
+     * @return Compiled overrides by locale, empty if no locale sets the message.
+     */
+    @NotNull
+    private static Map<String, WeightedMessage> loadOverrides(@NotNull final Map<String, ConfigurationSection> locales, @NotNull final String key) {
+        Map<String, WeightedMessage> overrides = Collections.emptyMap();
+
+        for(final Map.Entry<String, ConfigurationSection> locale : locales.entrySet()) {
+            if(!locale.getValue().isSet(key)) {
+                continue;
+            }
+
+            if(overrides.isEmpty()) {
+                overrides = new HashMap<>();
+            }
+
+            overrides.put(locale.getKey(), WeightedMessage.load(locale.getValue(), key));
+        }
+
+        return overrides;
+    }
+
+    /**
+     * Loads a list of strings into a compact array.
+     * @param config Configuration Section of the action.
+     * @param path Path of the list.
+     * @param lowercase Whether to convert the strings to lowercase.
+     * @return Loaded strings, shared empty array if there are none.
+     */
+    @NotNull
+    private static String[] loadList(@NotNull final ConfigurationSection config, @NotNull final String path, final boolean lowercase) {
+        if(!config.isSet(path)) {
+            return NONE;
+        }
+
+        final String[] values = config.getStringList(path).stream().distinct().toArray(String[]::new);
+        if(values.length == 0) {
+            return NONE;
+        }
+
+        if(lowercase) {
+            for(int i = 0; i < values.length; i++) {
+                values[i] = values[i].toLowerCase(Locale.ROOT);
+            }
+        }
+
+        return values;
+    }
 }
\ No newline at end of file
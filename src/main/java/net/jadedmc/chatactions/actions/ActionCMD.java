@@ -26,12 +26,22 @@ package net.jadedmc.chatactions.actions;
 
 import net.jadedmc.chatactions.ChatActionsPlugin;
 import net.jadedmc.chatactions.utils.ChatUtils;
+import org.bukkit.Location;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.defaults.BukkitCommand;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 
 /**
  * Represents the command that a player is to run when they want to use an action.
@@ -47,7 +57,7 @@ public class ActionCMD extends BukkitCommand {
      * @param action Associated action.
      */
     public ActionCMD(@NotNull final ChatActionsPlugin plugin, @NotNull final String commandName, @NotNull final Action action) {
-        super(commandName, "", "", new ArrayList<>(action.getAliases()));
+        super(commandName, "", "", new ArrayList<>(Arrays.asList(action.getAliases())));
         this.plugin = plugin;
         this.action = action;
     }
@@ -67,61 +77,274 @@ public class ActionCMD extends BukkitCommand {
             return true;
         }
 
+        // Make sure the action can be used in the player's world and group.
+        if(!plugin.getActionManager().getAvailabilityIndex().isAvailable(player, this.action)) {
+            ChatUtils.chat(player, action.getScopeMessage(player.getLocale()));
+            return true;
+        }
+
         // Make sure the player has permission to use the command.
         if(!action.canUse(player)) {
-            ChatUtils.chat(player, action.getPermissionMessage());
+            ChatUtils.chat(player, action.getPermissionMessage(player.getLocale()));
             return true;
         }
 
         // Make sure the sender is using the command properly.
         if(args.length == 0) {
-            ChatUtils.chat(player, action.getUsageMessage());
+            ChatUtils.chat(player, action.getUsageMessage(player.getLocale()));
             return true;
         }
 
+        // Make sure the sender meets the action's conditions.
+        if(!action.getConditions().testSender(player)) {
+            ChatUtils.chat(player, action.getConditionMessage(player.getLocale()));
+            return true;
+        }
 
         // Check if the target is everyone.
         if(!action.requiresTarget() && args[0].equalsIgnoreCase("all")) {
-            final String globalMessage = this.action.getNoTargetMessage(player);
+            // Display the global message to everyone in range.
+            broadcast(getViewers(player), locale -> this.action.getNoTargetMessage(locale, player));
+
+            // Records the use of the action in the sender's statistics and the audit log.
+            plugin.getStatisticsManager().recordUse(this.action, player, null);
+            plugin.getAuditLog().log(this.action, player, null);
+
+            // Starts any follow-up steps of the action.
+            plugin.getSequenceManager().start(this.action, player, Collections.emptySet());
+            return true;
+        }
+
+        final List<String> offlineTargets = new ArrayList<>();
+        final Set<Player> targets = getTargets(player, args, offlineTargets);
+
+        // Save the action for offline targets, now that the command has been accepted.
+        for(final String offlineTarget : offlineTargets) {
+            plugin.getQueueManager().queue(player, offlineTarget, this.action);
+        }
 
-            // Display the global message to all.
-            for(final Player viewer : plugin.getServer().getOnlinePlayers()) {
-                ChatUtils.chat(viewer, globalMessage);
+        // Stop if none of the targets could be used. The reason has already been sent to the player.
+        if(targets.isEmpty()) {
+            return true;
+        }
+
+        // Completes a reciprocal action if the target used it on the sender first.
+        if(this.action.isReciprocal() && targets.size() == 1) {
+            final Player target = targets.iterator().next();
+
+            if(plugin.getReciprocalManager().complete(this.action, player, target)) {
+                final List<Player> recipients = new ArrayList<>();
+                recipients.add(player);
+                recipients.add(target);
+
+                // Only sends the combined message to viewers if the action has a global message in any locale.
+                if(!this.action.getGlobalMessage().isEmpty()) {
+                    for(final Player viewer : getViewers(player)) {
+                        if(!viewer.equals(player) && !viewer.equals(target)) {
+                            recipients.add(viewer);
+                        }
+                    }
+                }
+
+                broadcast(recipients, locale -> this.action.getReciprocalMessage(locale, target, player));
+
+                // Records the use of the action in the statistics and the audit log.
+                plugin.getStatisticsManager().recordUse(this.action, player, target);
+                plugin.getAuditLog().log(this.action, player, target);
+
+                // Starts any follow-up steps of the action.
+                plugin.getSequenceManager().start(this.action, player, targets);
+                return true;
             }
         }
-        else {
-            final Player target = plugin.getServer().getPlayer(args[0]);
+
+        // Every message is rendered once for each locale in the group of targets.
+        final String targetNames = ChatUtils.formatNames(targets);
+
+        // Sends the proper messages to the sender and targets.
+        ChatUtils.chat(player, this.action.getSenderMessage(player, targetNames));
+        broadcast(targets, locale -> this.action.getTargetMessage(locale, player.getName(), targetNames));
+
+        // If a global message is configured for any locale, sends it to the viewers whose locale has one.
+        if(!this.action.getGlobalMessage().isEmpty()) {
+            final List<Player> viewers = new ArrayList<>();
+            for(final Player viewer : getViewers(player)) {
+                // Skip if the player already received a message.
+                if(viewer.equals(player) || targets.contains(viewer)) {
+                    continue;
+                }
+
+                viewers.add(viewer);
+            }
+
+            broadcast(viewers, locale -> this.action.getGlobalMessage(locale, player, targetNames));
+        }
+
+        // Records the use of the action in the statistics and the audit log.
+        for(final Player target : targets) {
+            plugin.getStatisticsManager().recordUse(this.action, player, target);
+            plugin.getAuditLog().log(this.action, player, target);
+        }
+
+        // Starts any follow-up steps of the action.
+        plugin.getSequenceManager().start(this.action, player, targets);
+
+        // Waits for the targets to return the action.
+        if(this.action.isReciprocal()) {
+            for(final Player target : targets) {
+                plugin.getReciprocalManager().request(this.action, player, target);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Sends a message to a group of players, rendering it once for each locale in the group.
+     * Locales whose message is empty are skipped, so a translation can turn a message off for its players.
+     * @param recipients Players to send the message to.
+     * @param renderer Renders the message for a locale.
+     */
+    private void broadcast(@NotNull final Collection<? extends Player> recipients, @NotNull final Function<String, String> renderer) {
+        final Map<String, List<Player>> locales = new HashMap<>();
+        for(final Player recipient : recipients) {
+            locales.computeIfAbsent(recipient.getLocale(), key -> new ArrayList<>()).add(recipient);
+        }
+
+        for(final Map.Entry<String, List<Player>> entry : locales.entrySet()) {
+            final String message = renderer.apply(entry.getKey());
+
+            if(!message.isEmpty()) {
+                ChatUtils.broadcast(entry.getValue(), message);
+            }
+        }
+    }
+
+    /**
+     * Resolves the targets of the action from the command arguments.
+     * Each argument can be a player name or a selector. Sends the sender an error if any argument is invalid.
+     * Offline targets are only added to the queue list if the whole command is valid.
+     * @param player Player using the action.
+     * @param args Arguments of the command.
+     * @param offlineTargets List to add the names of offline targets the action should be queued for to.
+     * @return Players the action should be sent to, empty if it should not be sent.
+     */
+    @NotNull
+    private Set<Player> getTargets(@NotNull final Player player, @NotNull final String[] args, @NotNull final List<String> offlineTargets) {
+        final TargetSelector targetSelector = plugin.getActionManager().getTargetSelector();
+        final Set<Player> targets = new LinkedHashSet<>();
+        final List<String> offline = new ArrayList<>();
+        final List<String> queued = new ArrayList<>();
+        final boolean queuesOffline = action.queuesOffline() && plugin.getQueueManager().isEnabled();
+        boolean filtered = false;
+
+        for(final String argument : args) {
+            // Resolve selectors into the group of players they match.
+            if(TargetSelector.isSelector(argument)) {
+                if(!targetSelector.isEnabled() || !player.hasPermission("chatactions.selectors")) {
+                    ChatUtils.chat(player, "<red><bold>Error</bold> <dark_gray>» <red>You do not have access to target selectors!");
+                    return Collections.emptySet();
+                }
+
+                try {
+                    for(final Player target : targetSelector.select(player, argument)) {
+                        // Skip players the action cannot be used on.
+                        if(!action.getConditions().testTarget(player, target)) {
+                            filtered = true;
+                            continue;
+                        }
+
+                        targets.add(target);
+                    }
+                }
+                catch (IllegalArgumentException exception) {
+                    ChatUtils.chat(player, "<red><bold>Error</bold> <dark_gray>» <red>" + exception.getMessage());
+                    return Collections.emptySet();
+                }
+
+                continue;
+            }
+
+            final Player target = plugin.getServer().getPlayer(argument);
 
             // Make sure the target player is online.
             if(target == null) {
-                ChatUtils.chat(player, "<red><bold>Error</bold> <dark_gray>» <red>That player is not online!");
-                return true;
+                // Save the action for later if the action allows it.
+                if(queuesOffline) {
+                    queued.add(argument);
+                }
+                else {
+                    offline.add(argument);
+                }
+
+                continue;
             }
 
             // Makes sure the target and sender aren't the same player.
             if(target.equals(player)) {
-                ChatUtils.chat(player, "<red><bold>Error</bold> <dark_gray>» <red>You cannot send that to yourself!");
-                return true;
+                if(args.length == 1) {
+                    ChatUtils.chat(player, "<red><bold>Error</bold> <dark_gray>» <red>You cannot send that to yourself!");
+                    return Collections.emptySet();
+                }
+
+                continue;
             }
 
-            // Sends the proper messages to the sender and target.
-            ChatUtils.chat(player, this.action.getSenderMessage(player, target));
-            ChatUtils.chat(target, this.action.getTargetMessage(player, target));
-
-            // If a global message is configured, sends it.
-            if(!this.action.getGlobalMessage().isEmpty()) {
-                final String globalMessage = this.action.getGlobalMessage(player, target);
-                for(final Player viewer : plugin.getServer().getOnlinePlayers()) {
-                    // Skip if the player already received a message.
-                    if(viewer.equals(player) || viewer.equals(target)) {
-                        continue;
-                    }
+            // Make sure the action can be used on the target.
+            if(!action.getConditions().testTarget(player, target)) {
+                filtered = true;
+                continue;
+            }
 
-                    ChatUtils.chat(viewer, globalMessage);
-                }
+            targets.add(target);
+        }
+
+        // Let the sender know if every target was blocked by the action's conditions.
+        if(filtered && targets.isEmpty()) {
+            ChatUtils.chat(player, action.getConditionMessage(player.getLocale()));
+        }
+
+        // Let the sender know which targets were skipped.
+        if(offline.size() == 1 && args.length == 1) {
+            ChatUtils.chat(player, "<red><bold>Error</bold> <dark_gray>» <red>That player is not online!");
+        }
+        else if(!offline.isEmpty()) {
+            ChatUtils.chat(player, "<red><bold>Error</bold> <dark_gray>» <red>These players are not online: " + String.join(", ", offline));
+        }
+
+        // Prevents a single command from flooding chat or someone's queue.
+        if(targets.size() + queued.size() > targetSelector.getMaxTargets()) {
+            ChatUtils.chat(player, "<red><bold>Error</bold> <dark_gray>» <red>You can only target up to " + targetSelector.getMaxTargets() + " players at once!");
+            return Collections.emptySet();
+        }
+
+        offlineTargets.addAll(queued);
+        return targets;
+    }
+
+    /**
+     * Gets the players who should see the action's global messages.
+     * Limited to players near the sender if the action has a range.
+     * @param player Player using the action.
+     * @return Players who can see the action.
+     */
+    @NotNull
+    private Collection<? extends Player> getViewers(@NotNull final Player player) {
+        // Actions without a range are seen by everyone.
+        if(this.action.getRange() < 0) {
+            return plugin.getServer().getOnlinePlayers();
+        }
+
+        // Only look at players in the sender's world.
+        final Location origin = player.getLocation();
+        final double rangeSquared = (double) this.action.getRange() * this.action.getRange();
+        final List<Player> viewers = new ArrayList<>();
+        for(final Player viewer : player.getWorld().getPlayers()) {
+            if(viewer.getLocation().distanceSquared(origin) <= rangeSquared) {
+                viewers.add(viewer);
             }
         }
 
-        return true;
+        return viewers;
     }
 }
\ No newline at end of file
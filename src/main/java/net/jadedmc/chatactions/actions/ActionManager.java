@@ -28,16 +28,23 @@ import net.jadedmc.chatactions.ChatActionsPlugin;
 import net.jadedmc.chatactions.utils.CommandUtils;
 import org.bukkit.configuration.ConfigurationSection;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.Collection;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * Manages the loading and existence of configured Actions.
  */
 public class ActionManager {
-    private final Collection<Action> loadedActions = new HashSet<>();
+    private final List<Action> loadedActions = new ArrayList<>();
+    private final Map<String, Action> commandLabels = new HashMap<>();
     private final ChatActionsPlugin plugin;
+    private final TargetSelector targetSelector;
+    private AvailabilityIndex availabilityIndex;
 
     /**
      * Creates the Action Manager.
@@ -45,18 +52,67 @@ public class ActionManager {
      */
     public ActionManager(@NotNull final ChatActionsPlugin plugin) {
         this.plugin = plugin;
+        this.targetSelector = new TargetSelector(plugin.getHookManager(), plugin.getConfigManager().getConfig().getConfigurationSection("selectors"));
 
         loadActions();
     }
 
+    /**
+     * Gets a loaded action from its name, one of its aliases, or a namespaced command label like "wave:wave".
+     * Uses a single lookup table shared by every action.
+     * @param name Name of the action.
+     * @return Corresponding action, null if there isn't one.
+     */
+    @Nullable
+    public Action getAction(@NotNull final String name) {
+        return commandLabels.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Gets the index of which actions each player can use.
+     * @return Availability index.
+     */
+    @NotNull
+    public AvailabilityIndex getAvailabilityIndex() {
+        return availabilityIndex;
+    }
+
+    /**
+     * Gets the target selector, used to resolve arguments like @nearest:3.
+     * @return Target selector.
+     */
+    @NotNull
+    public TargetSelector getTargetSelector() {
+        return targetSelector;
+    }
+
+    /**
+     * Maps a command label, and its namespaced version, to an action.
+     * @param label Command label.
+     * @param prefix Namespace of the action's commands, including the colon.
+     * @param action Action the label runs.
+     */
+    private void addLabel(@NotNull final String label, @NotNull final String prefix, @NotNull final Action action) {
+        final String lowercase = label.toLowerCase(Locale.ROOT);
+        commandLabels.put(lowercase, action);
+        commandLabels.put(prefix + lowercase, action);
+    }
+
     /**
      * Loads a given action from it's name and Configuration Section.
      * @param actionName
      * @param config
      */
     private void loadAction(@NotNull final String actionName, @NotNull final ConfigurationSection config) {
-        @NotNull final Action action = new Action(actionName, config);
+        @NotNull final Action action = new Action(plugin.getHookManager(), loadedActions.size(), actionName, config);
         loadedActions.add(action);
+
+        // Map every label the command can be run with to the action, including the namespaced ones like "wave:wave".
+        final String prefix = actionName.toLowerCase(Locale.ROOT) + ":";
+        addLabel(actionName, prefix, action);
+        for(final String alias : action.getAliases()) {
+            addLabel(alias, prefix, action);
+        }
     }
 
     /**
@@ -67,6 +123,7 @@ public class ActionManager {
 
         // Make sure actions have been configured.
         if(actions == null) {
+            availabilityIndex = new AvailabilityIndex(loadedActions);
             return;
         }
 
@@ -83,6 +140,9 @@ public class ActionManager {
             loadAction(actionName, actionConfig);
         }
 
+        // Work out which actions are available in each world and group.
+        availabilityIndex = new AvailabilityIndex(loadedActions);
+
         // Allow all the action commands to be shown in tab complete.
         CommandUtils.syncCommands();
     }
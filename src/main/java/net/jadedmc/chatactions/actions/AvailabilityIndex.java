@@ -0,0 +1,146 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.actions;
+
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Keeps track of which actions each online player can use, based on the worlds and groups actions are limited to.
+ * Each action has an id, and each player's available actions are stored as a bit set that is rebuilt
+ * when they change worlds or their commands are resent, so checking an action is a single lookup.
+ * Only used on the main thread.
+ */
+public class AvailabilityIndex {
+    private final int actionCount;
+    private final BitSet worldRestricted = new BitSet();
+    private final Map<String, BitSet> worldActions = new HashMap<>();
+    private final BitSet groupRestricted = new BitSet();
+    private final Map<String, BitSet> groupActions = new HashMap<>();
+    private final Map<UUID, BitSet> available = new HashMap<>();
+
+    /**
+     * Creates the index.
+     * @param actions Loaded actions, where each action's position is its id.
+     */
+    public AvailabilityIndex(@NotNull final List<Action> actions) {
+        this.actionCount = actions.size();
+
+        for(final Action action : actions) {
+            // Actions limited to certain worlds.
+            if(action.getWorlds().length > 0) {
+                this.worldRestricted.set(action.getId());
+
+                for(final String world : action.getWorlds()) {
+                    this.worldActions.computeIfAbsent(world, key -> new BitSet(this.actionCount)).set(action.getId());
+                }
+            }
+
+            // Actions limited to certain groups.
+            if(action.getGroups().length > 0) {
+                this.groupRestricted.set(action.getId());
+
+                for(final String group : action.getGroups()) {
+                    this.groupActions.computeIfAbsent(group, key -> new BitSet(this.actionCount)).set(action.getId());
+                }
+            }
+        }
+    }
+
+    /**
+     * Check if a player can use an action where they are.
+     * @param player Player to check.
+     * @param action Action to check.
+     * @return Whether the action is available to the player.
+     */
+    public boolean isAvailable(@NotNull final Player player, @NotNull final Action action) {
+        BitSet actions = this.available.get(player.getUniqueId());
+
+        // Players who haven't been indexed yet are indexed now.
+        if(actions == null) {
+            actions = compute(player);
+            this.available.put(player.getUniqueId(), actions);
+        }
+
+        return actions.get(action.getId());
+    }
+
+    /**
+     * Forgets a player's available actions.
+     * Called when the player leaves the server.
+     * @param player Player to forget.
+     */
+    public void remove(@NotNull final Player player) {
+        this.available.remove(player.getUniqueId());
+    }
+
+    /**
+     * Rebuilds the actions available to a player.
+     * @param player Player to update.
+     * @return Whether their available actions changed.
+     */
+    public boolean update(@NotNull final Player player) {
+        final BitSet actions = compute(player);
+        return !actions.equals(this.available.put(player.getUniqueId(), actions));
+    }
+
+    /**
+     * Works out which actions a player can use.
+     * @param player Player to check.
+     * @return Available actions, by id.
+     */
+    @NotNull
+    private BitSet compute(@NotNull final Player player) {
+        final BitSet actions = new BitSet(this.actionCount);
+        actions.set(0, this.actionCount);
+
+        // Remove actions limited to other worlds.
+        actions.andNot(this.worldRestricted);
+        final BitSet inWorld = this.worldActions.get(player.getWorld().getName());
+        if(inWorld != null) {
+            actions.or(inWorld);
+        }
+
+        // Remove actions limited to groups the player isn't in.
+        if(!this.groupRestricted.isEmpty()) {
+            final BitSet blocked = (BitSet) this.groupRestricted.clone();
+            for(final Map.Entry<String, BitSet> entry : this.groupActions.entrySet()) {
+                if(player.hasPermission("group." + entry.getKey())) {
+                    blocked.andNot(entry.getValue());
+                }
+            }
+
+            actions.andNot(blocked);
+        }
+
+        return actions;
+    }
+}
\ No newline at end of file
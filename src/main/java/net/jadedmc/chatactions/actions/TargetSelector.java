@@ -0,0 +1,269 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.actions;
+
+import me.clip.placeholderapi.PlaceholderAPI;
+import net.jadedmc.chatactions.HookManager;
+import org.bukkit.Location;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+
+/**
+ * Resolves target selectors, which let a single action argument target a group of players.
+ * Supports @nearest:[amount], @radius:[blocks], @world and @party.
+ * Selectors only ever look at the players in the sender's world, except for @party.
+ */
+public class TargetSelector {
+    private final HookManager hookManager;
+    private final boolean enabled;
+    private final int maxTargets;
+    private final int maxRadius;
+    private final String partyPlaceholder;
+
+    /**
+     * Creates the target selector.
+     * @param hookManager Hook Manager, used by @party to check if PlaceholderAPI is installed.
+     * @param config Configuration Section of the selector settings, null to use the defaults.
+     */
+    public TargetSelector(@NotNull final HookManager hookManager, @Nullable final ConfigurationSection config) {
+        this.hookManager = hookManager;
+
+        if(config == null) {
+            this.enabled = true;
+            this.maxTargets = 50;
+            this.maxRadius = 100;
+            this.partyPlaceholder = "";
+            return;
+        }
+
+        this.enabled = config.getBoolean("enabled", true);
+        this.maxTargets = Math.max(1, config.getInt("max-targets", 50));
+        this.maxRadius = Math.max(1, config.getInt("max-radius", 100));
+        this.partyPlaceholder = config.getString("party-placeholder", "");
+    }
+
+    /**
+     * Get if an argument is a selector rather than a player name.
+     * @param argument Argument to check.
+     * @return Whether the argument is a selector.
+     */
+    public static boolean isSelector(@NotNull final String argument) {
+        return argument.startsWith("@");
+    }
+
+    /**
+     * Gets the maximum number of players a single action can target.
+     * @return Maximum target count.
+     */
+    public int getMaxTargets() {
+        return this.maxTargets;
+    }
+
+    /**
+     * Get if players are allowed to use selectors.
+     * @return Whether selectors are enabled.
+     */
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Gets the players matched by a selector, excluding the sender.
+     * @param sender Player using the selector.
+     * @param selector Selector to resolve.
+     * @return Matched players.
+     * @throws IllegalArgumentException If the selector is invalid, with a message that can be shown to the sender.
+     */
+    @NotNull
+    public Collection<Player> select(@NotNull final Player sender, @NotNull final String selector) {
+        final String[] parts = selector.substring(1).toLowerCase(Locale.ROOT).split(":", 2);
+
+        return switch (parts[0]) {
+            case "nearest" -> selectNearest(sender, parseAmount(parts, this.maxTargets));
+            case "radius" -> selectRadius(sender, parseAmount(parts, this.maxRadius));
+            case "world" -> selectWorld(sender);
+            case "party" -> selectParty(sender);
+            default -> throw new IllegalArgumentException("Unknown selector " + selector + "!");
+        };
+    }
+
+    /**
+     * Selects the closest players to the sender.
+     * Keeps a bounded heap of the closest players found so far, so only the requested amount is ever sorted.
+     * @param sender Player using the selector.
+     * @param amount Number of players to select.
+     * @return Closest players, nearest first.
+     */
+    @NotNull
+    private Collection<Player> selectNearest(@NotNull final Player sender, final int amount) {
+        final Location origin = sender.getLocation();
+        final PriorityQueue<Candidate> closest = new PriorityQueue<>(amount + 1, Comparator.comparingDouble((Candidate candidate) -> candidate.distance).reversed());
+
+        for(final Player player : sender.getWorld().getPlayers()) {
+            if(player.equals(sender) || !sender.canSee(player)) {
+                continue;
+            }
+
+            closest.add(new Candidate(player, player.getLocation().distanceSquared(origin)));
+
+            // Drop the furthest player once there are too many.
+            if(closest.size() > amount) {
+                closest.poll();
+            }
+        }
+
+        // Empty the heap furthest first, filling the list from the back.
+        final Player[] players = new Player[closest.size()];
+        for(int index = players.length - 1; index >= 0; index--) {
+            players[index] = closest.poll().player;
+        }
+
+        return List.of(players);
+    }
+
+    /**
+     * Selects every player within a distance of the sender.
+     * @param sender Player using the selector.
+     * @param radius Distance in blocks.
+     * @return Players within range.
+     */
+    @NotNull
+    private Collection<Player> selectRadius(@NotNull final Player sender, final int radius) {
+        final Location origin = sender.getLocation();
+        final double radiusSquared = (double) radius * radius;
+        final List<Player> players = new ArrayList<>();
+
+        for(final Player player : sender.getWorld().getPlayers()) {
+            if(!player.equals(sender) && sender.canSee(player) && player.getLocation().distanceSquared(origin) <= radiusSquared) {
+                players.add(player);
+            }
+        }
+
+        return players;
+    }
+
+    /**
+     * Selects every player in the sender's world.
+     * @param sender Player using the selector.
+     * @return Players in the same world.
+     */
+    @NotNull
+    private Collection<Player> selectWorld(@NotNull final Player sender) {
+        final List<Player> players = new ArrayList<>();
+
+        for(final Player player : sender.getWorld().getPlayers()) {
+            if(!player.equals(sender) && sender.canSee(player)) {
+                players.add(player);
+            }
+        }
+
+        return players;
+    }
+
+    /**
+     * Selects every online player in the sender's party.
+     * Parties come from another plugin through the configured PlaceholderAPI placeholder,
+     * and players whose placeholder has the same value are in the same party.
+     * @param sender Player using the selector.
+     * @return Players in the same party.
+     * @throws IllegalArgumentException If parties are not set up, or the sender is not in one.
+     */
+    @NotNull
+    private Collection<Player> selectParty(@NotNull final Player sender) {
+        // Make sure there is somewhere to get parties from.
+        if(this.partyPlaceholder.isEmpty() || !this.hookManager.usePlaceholderAPI()) {
+            throw new IllegalArgumentException("@party is not available on this server!");
+        }
+
+        // Unresolved placeholders are left as they are, so they don't count as a party either.
+        final String party = PlaceholderAPI.setPlaceholders(sender, this.partyPlaceholder).trim();
+        if(party.isEmpty() || party.equals(this.partyPlaceholder)) {
+            throw new IllegalArgumentException("You are not in a party!");
+        }
+
+        final List<Player> players = new ArrayList<>();
+        for(final Player player : sender.getServer().getOnlinePlayers()) {
+            if(!player.equals(sender) && sender.canSee(player) && party.equals(PlaceholderAPI.setPlaceholders(player, this.partyPlaceholder).trim())) {
+                players.add(player);
+            }
+        }
+
+        return players;
+    }
+
+    /**
+     * Reads the number after a selector's colon.
+     * @param parts Selector split at the colon.
+     * @param max Largest allowed number.
+     * @return Selector amount.
+     * @throws IllegalArgumentException If the amount is missing, invalid or too large.
+     */
+    private int parseAmount(@NotNull final String[] parts, final int max) {
+        if(parts.length < 2) {
+            throw new IllegalArgumentException("Usage: @" + parts[0] + ":[amount]");
+        }
+
+        final int amount;
+        try {
+            amount = Integer.parseInt(parts[1]);
+        }
+        catch (NumberFormatException exception) {
+            throw new IllegalArgumentException(parts[1] + " is not a valid number!");
+        }
+
+        if(amount < 1 || amount > max) {
+            throw new IllegalArgumentException("@" + parts[0] + " must be between 1 and " + max + "!");
+        }
+
+        return amount;
+    }
+
+    /**
+     * Represents a player being considered by @nearest, along with their distance from the sender.
+     */
+    private static class Candidate {
+        private final Player player;
+        private final double distance;
+
+        /**
+         * Creates the candidate.
+         * @param player Player being considered.
+         * @param distance Squared distance from the sender.
+         */
+        private Candidate(@NotNull final Player player, final double distance) {
+            this.player = player;
+            this.distance = distance;
+        }
+    }
+}
\ No newline at end of file
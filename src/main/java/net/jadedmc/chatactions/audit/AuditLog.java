@@ -0,0 +1,325 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.audit;
+
+import net.jadedmc.chatactions.ChatActionsPlugin;
+import net.jadedmc.chatactions.actions.Action;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Records who used which action on whom.
+ * Events are placed into a preallocated ring buffer on the main thread, and a single background thread
+ * drains the buffer into rotating log files. If the writer falls behind, new events are dropped and counted.
+ */
+public class AuditLog {
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+
+    private final ChatActionsPlugin plugin;
+    private final boolean enabled;
+    private final boolean compress;
+    private final long maxFileSize;
+    private final File folder;
+    private final int mask;
+    private final long[] timestamps;
+    private final String[] senders;
+    private final String[] actionNames;
+    private final String[] targets;
+    private final AtomicLong writeSequence = new AtomicLong();
+    private final AtomicLong readSequence = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final StringBuilder batch = new StringBuilder();
+    private volatile boolean running = false;
+    private Thread writer;
+    private WritableByteChannel channel;
+    private OutputStream compressedStream;
+    private long fileSize = 0;
+
+    /**
+     * Creates the audit log.
+     * @param plugin Instance of the plugin.
+     */
+    public AuditLog(@NotNull final ChatActionsPlugin plugin) {
+        this.plugin = plugin;
+        this.folder = new File(plugin.getDataFolder(), "audit");
+
+        final ConfigurationSection config = plugin.getConfigManager().getConfig().getConfigurationSection("audit-log");
+        this.enabled = config != null && config.getBoolean("enabled", false);
+        this.compress = config != null && config.getBoolean("compress", true);
+        this.maxFileSize = Math.max(1, config == null ? 10 : config.getLong("max-file-size", 10)) * 1024 * 1024;
+
+        // Round the buffer size up to a power of two, so sequences can be mapped to slots with a mask.
+        final int requestedSize = Math.max(16, config == null ? 8192 : config.getInt("buffer-size", 8192));
+        final int capacity = Integer.highestOneBit(requestedSize - 1) << 1;
+        this.mask = capacity - 1;
+
+        // Only allocate the buffer if it will be used.
+        final int allocated = this.enabled ? capacity : 0;
+        this.timestamps = new long[allocated];
+        this.senders = new String[allocated];
+        this.actionNames = new String[allocated];
+        this.targets = new String[allocated];
+
+        if(!this.enabled) {
+            return;
+        }
+
+        this.running = true;
+        this.writer = new Thread(this::drain, "ChatActions Audit Log");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Gets the number of events that could not be logged because the buffer was full.
+     * @return Dropped event count.
+     */
+    public long getDropped() {
+        return this.dropped.get();
+    }
+
+    /**
+     * Gets the number of events waiting to be written.
+     * @return Pending event count.
+     */
+    public long getPending() {
+        return this.writeSequence.get() - this.readSequence.get();
+    }
+
+    /**
+     * Gets the number of events that have been written to disk.
+     * @return Written event count.
+     */
+    public long getWritten() {
+        return this.written.get();
+    }
+
+    /**
+     * Get if actions are being logged.
+     * @return Whether the audit log is enabled.
+     */
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Logs a player using an action.
+     * Must only be called from the main thread.
+     * @param action Action that was used.
+     * @param sender Player who used the action.
+     * @param target Player the action was used on, null if there was no specific target.
+     */
+    public void log(@NotNull final Action action, @NotNull final Player sender, @Nullable final Player target) {
+        log(action, sender.getName(), target);
+    }
+
+    /**
+     * Logs an action used by a player who may no longer be online, like one delivered from the queue.
+     * Must only be called from the main thread.
+     * @param action Action that was used.
+     * @param senderName Name of the player who used the action.
+     * @param target Player the action was used on, null if there was no specific target.
+     */
+    public void log(@NotNull final Action action, @NotNull final String senderName, @Nullable final Player target) {
+        if(!this.enabled) {
+            return;
+        }
+
+        final long sequence = this.writeSequence.get();
+
+        // Drop the event if the writer hasn't caught up yet.
+        if(sequence - this.readSequence.get() > this.mask) {
+            this.dropped.incrementAndGet();
+            return;
+        }
+
+        final int slot = (int) (sequence & this.mask);
+        this.timestamps[slot] = System.currentTimeMillis();
+        this.senders[slot] = senderName;
+        this.actionNames[slot] = action.getName();
+        this.targets[slot] = target == null ? "*" : target.getName();
+
+        // Publishes the event to the writer.
+        this.writeSequence.lazySet(sequence + 1);
+    }
+
+    /**
+     * Stops the writer, waiting for it to write any remaining events.
+     * Called when the plugin is disabled.
+     */
+    public void shutdown() {
+        if(this.writer == null) {
+            return;
+        }
+
+        this.running = false;
+        LockSupport.unpark(this.writer);
+
+        try {
+            this.writer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writes events from the buffer to disk until the log is shut down.
+     * Runs on the writer thread.
+     */
+    private void drain() {
+        try {
+            while(this.running || getPending() > 0) {
+                final long available = this.writeSequence.get();
+                final long read = this.readSequence.get();
+
+                // Wait for more events.
+                if(available == read) {
+                    LockSupport.parkNanos(IDLE_NANOS);
+                    continue;
+                }
+
+                // Format every available event in a single batch.
+                this.batch.setLength(0);
+                for(long sequence = read; sequence < available; sequence++) {
+                    final int slot = (int) (sequence & this.mask);
+                    this.batch.append(Instant.ofEpochMilli(this.timestamps[slot])).append('\t')
+                            .append(this.senders[slot]).append('\t')
+                            .append(this.actionNames[slot]).append('\t')
+                            .append(this.targets[slot]).append('\n');
+
+                    // Release the strings so they can be garbage collected.
+                    this.senders[slot] = null;
+                    this.actionNames[slot] = null;
+                    this.targets[slot] = null;
+                }
+
+                // Frees up the slots for the main thread.
+                this.readSequence.lazySet(available);
+
+                write(StandardCharsets.UTF_8.encode(this.batch.toString()));
+                this.written.addAndGet(available - read);
+            }
+        }
+        catch (IOException exception) {
+            plugin.getLogger().severe("Audit log writer stopped: " + exception.getMessage());
+            exception.printStackTrace();
+        }
+        finally {
+            closeFile();
+        }
+    }
+
+    /**
+     * Writes a batch of formatted events, rotating the file if it has gotten too large.
+     * @param buffer Encoded events.
+     * @throws IOException If the events could not be written.
+     */
+    private void write(@NotNull final ByteBuffer buffer) throws IOException {
+        if(this.channel == null || this.fileSize >= this.maxFileSize) {
+            rotate();
+        }
+
+        this.fileSize += buffer.remaining();
+        while(buffer.hasRemaining()) {
+            this.channel.write(buffer);
+        }
+
+        // Push compressed events to disk, so they aren't lost if the server crashes.
+        if(this.compressedStream != null) {
+            this.compressedStream.flush();
+        }
+    }
+
+    /**
+     * Closes the current log file and opens a new one.
+     * @throws IOException If the new file could not be opened.
+     */
+    private void rotate() throws IOException {
+        closeFile();
+
+        // Make sure the audit folder exists.
+        if(!this.folder.exists() && !this.folder.mkdirs()) {
+            throw new IOException("Could not create " + this.folder);
+        }
+
+        // Name the file after when it was opened, adding a counter if one already exists for that second.
+        final String baseName = "audit-" + new SimpleDateFormat("yyyy-MM-dd-HHmmss").format(new Date());
+        final String extension = this.compress ? ".log.gz" : ".log";
+        File file = new File(this.folder, baseName + extension);
+        for(int counter = 1; file.exists(); counter++) {
+            file = new File(this.folder, baseName + "-" + counter + extension);
+        }
+
+        final FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        if(this.compress) {
+            this.compressedStream = new GZIPOutputStream(Channels.newOutputStream(fileChannel), 8192, true);
+            this.channel = Channels.newChannel(this.compressedStream);
+        }
+        else {
+            this.channel = fileChannel;
+        }
+        this.fileSize = 0;
+    }
+
+    /**
+     * Closes the current log file, if one is open.
+     */
+    private void closeFile() {
+        if(this.channel == null) {
+            return;
+        }
+
+        try {
+            this.channel.close();
+        }
+        catch (IOException exception) {
+            exception.printStackTrace();
+        }
+
+        this.channel = null;
+        this.compressedStream = null;
+    }
+}
\ No newline at end of file
@@ -24,5 +24,140 @@
  */
 package net.jadedmc.chatactions.commands;
 
-public class ChatActionsCMD {
-}
+import net.jadedmc.chatactions.ChatActionsPlugin;
+import net.jadedmc.chatactions.actions.Action;
+import net.jadedmc.chatactions.audit.AuditLog;
+import net.jadedmc.chatactions.messages.MessagePool;
+import net.jadedmc.chatactions.placeholders.PlaceholderResolver;
+import net.jadedmc.chatactions.statistics.Leaderboard;
+import net.jadedmc.chatactions.utils.ChatUtils;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+
+/**
+ * Represents the main plugin command, /chatactions.
+ */
+public class ChatActionsCMD implements CommandExecutor {
+    private final ChatActionsPlugin plugin;
+
+    /**
+     * Creates the command.
+     * @param plugin Instance of the plugin.
+     */
+    public ChatActionsCMD(@NotNull final ChatActionsPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Runs when the command is executed.
+     * @param sender Sender of the command.
+     * @param command Command being executed.
+     * @param label Command label.
+     * @param args Arguments of the command.
+     * @return true.
+     */
+    @Override
+    public boolean onCommand(@NotNull final CommandSender sender, @NotNull final Command command, @NotNull final String label, @NotNull final String[] args) {
+        // Shows the command usage if no sub command is given.
+        if(args.length == 0) {
+            ChatUtils.chat(sender, "<red><bold>Usage</bold> <dark_gray>» <red>/chatactions stats <dark_gray>| <red>/chatactions top [action] <sent/received>");
+            return true;
+        }
+
+        switch (args[0].toLowerCase()) {
+            case "stats" -> statsCMD(sender);
+            case "top" -> topCMD(sender, args);
+            default -> ChatUtils.chat(sender, "<red><bold>Usage</bold> <dark_gray>» <red>/chatactions stats <dark_gray>| <red>/chatactions top [action] <sent/received>");
+        }
+
+        return true;
+    }
+
+    /**
+     * Runs the /chatactions stats sub command.
+     * Shows information about how the plugin is performing.
+     * @param sender Sender of the command.
+     */
+    private void statsCMD(@NotNull final CommandSender sender) {
+        // Make sure the sender has permission to view plugin stats.
+        if(!sender.hasPermission("chatactions.admin")) {
+            ChatUtils.chat(sender, "<red><bold>Error</bold> <dark_gray>» <red>You do not have access to that command!");
+            return;
+        }
+
+        ChatUtils.chat(sender, "<gold><bold>ChatActions Stats");
+
+        // Shows how many messages are shared between actions, and roughly how much they take up.
+        ChatUtils.chat(sender, "<gray>Message Pool: <white>" + String.format("%,d", MessagePool.getTemplateCount()) + " unique<dark_gray>, <white>"
+                + String.format("%,d", MessagePool.getRequests()) + " requested<dark_gray>, <white>" + String.format("%,d", MessagePool.getRetainedChars()) + " chars stored");
+        ChatUtils.chat(sender, "<gray>Shared Messages: <white>" + String.format("%,d", MessagePool.getSingleCount()) + " single-variant<dark_gray>, <white>"
+                + String.format("%,d", MessagePool.getComponentCount()) + " of " + String.format("%,d", MessagePool.getFixedCount()) + " without placeholders translated");
+
+        // Shows if the audit log is keeping up.
+        final AuditLog auditLog = plugin.getAuditLog();
+        if(auditLog.isEnabled()) {
+            ChatUtils.chat(sender, "<gray>Audit Log: <white>" + String.format("%,d", auditLog.getWritten()) + " written<dark_gray>, <white>"
+                    + String.format("%,d", auditLog.getPending()) + " pending<dark_gray>, <white>" + String.format("%,d", auditLog.getDropped()) + " dropped");
+        }
+        else {
+            ChatUtils.chat(sender, "<gray>Audit Log: <white>Disabled");
+        }
+
+        // Shows how each expansion with background placeholders is performing.
+        for(final Map.Entry<String, PlaceholderResolver.ExpansionMetrics> entry : plugin.getPlaceholderResolver().getMetrics().entrySet()) {
+            final PlaceholderResolver.ExpansionMetrics metrics = entry.getValue();
+            ChatUtils.chat(sender, "<gray>Placeholders (" + entry.getKey() + "): <white>" + String.format("%.3f", metrics.getAverageNanos() / 1_000_000.0) + " ms avg<dark_gray>, <white>"
+                    + String.format("%,d", metrics.getResolved()) + " resolved<dark_gray>, <white>" + String.format("%,d", metrics.getTimeouts()) + " timed out<dark_gray>, <white>"
+                    + String.format("%,d", metrics.getSkipped()) + " skipped" + (metrics.isTripped() ? " <red>(skipping)" : ""));
+        }
+    }
+
+    /**
+     * Runs the /chatactions top sub command.
+     * Shows the players who have used an action the most.
+     * @param sender Sender of the command.
+     * @param args Arguments of the command.
+     */
+    private void topCMD(@NotNull final CommandSender sender, @NotNull final String[] args) {
+        // Make sure the sender is using the command properly.
+        if(args.length < 2) {
+            ChatUtils.chat(sender, "<red><bold>Usage</bold> <dark_gray>» <red>/chatactions top [action] <sent/received>");
+            return;
+        }
+
+        // Make sure statistics are being tracked.
+        if(!plugin.getStatisticsManager().isEnabled()) {
+            ChatUtils.chat(sender, "<red><bold>Error</bold> <dark_gray>» <red>Statistics are disabled!");
+            return;
+        }
+
+        final Action action = plugin.getActionManager().getAction(args[1]);
+
+        // Make sure the action exists.
+        if(action == null) {
+            ChatUtils.chat(sender, "<red><bold>Error</bold> <dark_gray>» <red>That action does not exist!");
+            return;
+        }
+
+        // Defaults to showing senders.
+        final boolean received = args.length > 2 && args[2].equalsIgnoreCase("received");
+        final Leaderboard leaderboard = received ? plugin.getStatisticsManager().getReceivedLeaderboard(action.getName()) : plugin.getStatisticsManager().getSentLeaderboard(action.getName());
+
+        ChatUtils.chat(sender, "<gold><bold>Top /" + action.getName() + (received ? " Receivers" : " Senders"));
+
+        final Leaderboard.Entry[] entries = leaderboard == null ? new Leaderboard.Entry[0] : leaderboard.getEntries();
+        if(entries.length == 0) {
+            ChatUtils.chat(sender, "<gray>Nobody has used that action yet.");
+            return;
+        }
+
+        for(int rank = 1; rank <= entries.length; rank++) {
+            final Leaderboard.Entry entry = entries[rank - 1];
+            ChatUtils.chat(sender, "<gray>#" + rank + " <gold>" + entry.getPlayerName() + " <dark_gray>- <white>" + String.format("%,d", entry.getValue()));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,173 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.conditions;
+
+import net.jadedmc.chatactions.HookManager;
+import org.bukkit.Bukkit;
+import org.bukkit.GameMode;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Holds the conditions an action has, compiled from its config when the action is loaded.
+ * Conditions that only depend on the sender are kept apart from ones that depend on the target,
+ * so they are only checked once per use no matter how many targets there are.
+ */
+public class ActionConditions {
+    private final Condition senderCondition;
+    private final Condition targetCondition;
+
+    /**
+     * Compiles the conditions from a given configuration.
+     * @param hookManager Hook Manager, used by conditions that depend on other plugins.
+     * @param actionName Name of the action the conditions belong to, used in warnings.
+     * @param config Configuration Section to load the conditions from, or null if there are none.
+     */
+    public ActionConditions(@NotNull final HookManager hookManager, @NotNull final String actionName, @Nullable final ConfigurationSection config) {
+        final List<Condition> senderConditions = new ArrayList<>();
+        final List<Condition> targetConditions = new ArrayList<>();
+
+        // Actions without conditions can always be used.
+        if(config == null) {
+            this.senderCondition = ConstantCondition.TRUE;
+            this.targetCondition = ConstantCondition.TRUE;
+            return;
+        }
+
+        // Only allow the action in certain game modes.
+        if(config.isList("gamemodes")) {
+            final Set<GameMode> gameModes = EnumSet.noneOf(GameMode.class);
+            for(final String gameMode : config.getStringList("gamemodes")) {
+                try {
+                    gameModes.add(GameMode.valueOf(gameMode.toUpperCase(Locale.ROOT)));
+                }
+                catch (IllegalArgumentException exception) {
+                    Bukkit.getLogger().warning("Skipping invalid game mode " + gameMode + " in action " + actionName + ".");
+                }
+            }
+
+            // Listing every game mode is the same as not checking at all.
+            senderConditions.add(gameModes.size() == GameMode.values().length ? ConstantCondition.TRUE : new GameModeCondition(gameModes));
+        }
+
+        // Block the action for a while after the sender is in combat.
+        if(config.isSet("sender-not-in-combat")) {
+            final long combatSeconds = config.getLong("sender-not-in-combat");
+            if(combatSeconds > 0) {
+                senderConditions.add(new CombatCondition(combatSeconds));
+            }
+        }
+
+        // Compare placeholders to numbers.
+        if(config.isList("placeholders")) {
+            for(final Map<?, ?> placeholderConfig : config.getMapList("placeholders")) {
+                try {
+                    senderConditions.add(compilePlaceholder(hookManager, placeholderConfig));
+                }
+                catch (IllegalArgumentException exception) {
+                    Bukkit.getLogger().warning("Skipping invalid placeholder condition in action " + actionName + ": " + exception.getMessage());
+                }
+            }
+        }
+
+        // Make sure the target is in the same world as the sender.
+        if(config.getBoolean("same-world", false)) {
+            targetConditions.add(new SameWorldCondition());
+        }
+
+        // Make sure the target is not vanished.
+        if(config.getBoolean("target-not-vanished", false)) {
+            targetConditions.add(new VanishCondition());
+        }
+
+        this.senderCondition = AllCondition.of(senderConditions);
+        this.targetCondition = AllCondition.of(targetConditions);
+    }
+
+    /**
+     * Compiles a placeholder condition.
+     * Placeholders that do not contain any placeholders are compared right away.
+     * @param hookManager Hook Manager, used to check if PlaceholderAPI is installed.
+     * @param config Map containing the placeholder, operator, and value.
+     * @return Compiled condition.
+     * @throws IllegalArgumentException If the placeholder condition is not valid.
+     */
+    @NotNull
+    private static Condition compilePlaceholder(@NotNull final HookManager hookManager, @NotNull final Map<?, ?> config) {
+        final Object placeholder = config.get("placeholder");
+        if(placeholder == null) {
+            throw new IllegalArgumentException("Missing placeholder.");
+        }
+
+        final Object operator = config.get("operator");
+        final PlaceholderCondition.Operator parsedOperator = PlaceholderCondition.Operator.fromSymbol(operator == null ? ">=" : operator.toString());
+
+        final Object value = config.get("value");
+        if(!(value instanceof Number number)) {
+            throw new IllegalArgumentException("Value must be a number.");
+        }
+
+        // Nothing to parse, so the result never changes.
+        final String text = placeholder.toString();
+        if(text.indexOf('%') == -1) {
+            try {
+                return ConstantCondition.of(parsedOperator.compare(Double.parseDouble(text.trim()), number.doubleValue()));
+            }
+            catch (NumberFormatException exception) {
+                return ConstantCondition.FALSE;
+            }
+        }
+
+        return new PlaceholderCondition(hookManager, text, parsedOperator, number.doubleValue());
+    }
+
+    /**
+     * Checks the conditions that only depend on the sender.
+     * @param sender Player using the action.
+     * @return Whether the sender can use the action.
+     */
+    public boolean testSender(@NotNull final Player sender) {
+        return this.senderCondition.test(sender, null);
+    }
+
+    /**
+     * Checks the conditions that depend on the target.
+     * @param sender Player using the action.
+     * @param target Player the action is being used on.
+     * @return Whether the action can be used on the target.
+     */
+    public boolean testTarget(@NotNull final Player sender, @NotNull final Player target) {
+        return this.targetCondition.test(sender, target);
+    }
+}
\ No newline at end of file
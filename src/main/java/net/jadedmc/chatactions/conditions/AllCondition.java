@@ -0,0 +1,105 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.conditions;
+
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A condition that passes only if all of its child conditions pass.
+ * Children are checked cheapest first, stopping at the first one that fails.
+ */
+public class AllCondition implements Condition {
+    private final Condition[] conditions;
+    private final int cost;
+
+    /**
+     * Creates the condition.
+     * @param conditions Child conditions, sorted from cheapest to most expensive.
+     */
+    private AllCondition(@NotNull final Condition[] conditions) {
+        this.conditions = conditions;
+
+        int cost = 0;
+        for(final Condition condition : conditions) {
+            cost += condition.getCost();
+        }
+        this.cost = cost;
+    }
+
+    /**
+     * Combines conditions into one, folding away any whose result is already known.
+     * @param conditions Conditions to combine.
+     * @return Combined condition.
+     */
+    @NotNull
+    public static Condition of(@NotNull final List<Condition> conditions) {
+        final List<Condition> remaining = new ArrayList<>();
+
+        for(final Condition condition : conditions) {
+            // A condition that always fails makes the whole group fail.
+            if(condition == ConstantCondition.FALSE) {
+                return ConstantCondition.FALSE;
+            }
+
+            // Conditions that always pass don't need to be checked.
+            if(condition != ConstantCondition.TRUE) {
+                remaining.add(condition);
+            }
+        }
+
+        if(remaining.isEmpty()) {
+            return ConstantCondition.TRUE;
+        }
+
+        if(remaining.size() == 1) {
+            return remaining.get(0);
+        }
+
+        remaining.sort(Comparator.comparingInt(Condition::getCost));
+        return new AllCondition(remaining.toArray(new Condition[0]));
+    }
+
+    @Override
+    public int getCost() {
+        return this.cost;
+    }
+
+    @Override
+    public boolean test(@NotNull final Player sender, @Nullable final Player target) {
+        for(final Condition condition : this.conditions) {
+            if(!condition.test(sender, target)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,67 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.conditions;
+
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A condition whose result is already known when the action is loaded.
+ */
+public class ConstantCondition implements Condition {
+    public static final ConstantCondition TRUE = new ConstantCondition(true);
+    public static final ConstantCondition FALSE = new ConstantCondition(false);
+
+    private final boolean result;
+
+    /**
+     * Creates the condition.
+     * @param result Result of the condition.
+     */
+    private ConstantCondition(final boolean result) {
+        this.result = result;
+    }
+
+    /**
+     * Gets the constant condition for a result.
+     * @param result Result of the condition.
+     * @return Constant condition.
+     */
+    @NotNull
+    public static ConstantCondition of(final boolean result) {
+        return result ? TRUE : FALSE;
+    }
+
+    @Override
+    public int getCost() {
+        return 0;
+    }
+
+    @Override
+    public boolean test(@NotNull final Player sender, @Nullable final Player target) {
+        return this.result;
+    }
+}
\ No newline at end of file
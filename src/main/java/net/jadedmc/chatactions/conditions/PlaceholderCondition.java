@@ -0,0 +1,135 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.conditions;
+
+import me.clip.placeholderapi.PlaceholderAPI;
+import net.jadedmc.chatactions.HookManager;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Compares the value of a PlaceholderAPI placeholder, parsed for the sender, to a number.
+ * Fails if the placeholder does not resolve to a number, or if PlaceholderAPI is not installed.
+ */
+public class PlaceholderCondition implements Condition {
+    private final HookManager hookManager;
+    private final String placeholder;
+    private final Operator operator;
+    private final double value;
+
+    /**
+     * Creates the condition.
+     * @param hookManager Hook Manager, used to check if PlaceholderAPI is installed.
+     * @param placeholder Placeholder to parse.
+     * @param operator How the placeholder is compared.
+     * @param value Number the placeholder is compared to.
+     */
+    public PlaceholderCondition(@NotNull final HookManager hookManager, @NotNull final String placeholder, @NotNull final Operator operator, final double value) {
+        this.hookManager = hookManager;
+        this.placeholder = placeholder;
+        this.operator = operator;
+        this.value = value;
+    }
+
+    @Override
+    public int getCost() {
+        return 10;
+    }
+
+    @Override
+    public boolean test(@NotNull final Player sender, @Nullable final Player target) {
+        // Make sure PlaceholderAPI is installed.
+        if(!this.hookManager.usePlaceholderAPI()) {
+            return false;
+        }
+
+        final double parsed;
+        try {
+            parsed = Double.parseDouble(PlaceholderAPI.setPlaceholders(sender, this.placeholder).trim());
+        }
+        catch (NumberFormatException exception) {
+            return false;
+        }
+
+        return this.operator.compare(parsed, this.value);
+    }
+
+    /**
+     * The different ways a placeholder can be compared to a number.
+     */
+    public enum Operator {
+        LESS("<"),
+        LESS_OR_EQUAL("<="),
+        GREATER(">"),
+        GREATER_OR_EQUAL(">="),
+        EQUAL("=="),
+        NOT_EQUAL("!=");
+
+        private final String symbol;
+
+        /**
+         * Creates the operator.
+         * @param symbol Symbol used for the operator in the config.
+         */
+        Operator(@NotNull final String symbol) {
+            this.symbol = symbol;
+        }
+
+        /**
+         * Gets an operator from its symbol.
+         * @param symbol Symbol of the operator, like ">=".
+         * @return Corresponding operator.
+         * @throws IllegalArgumentException If the symbol is not an operator.
+         */
+        @NotNull
+        public static Operator fromSymbol(@NotNull final String symbol) {
+            for(final Operator operator : values()) {
+                if(operator.symbol.equals(symbol)) {
+                    return operator;
+                }
+            }
+
+            throw new IllegalArgumentException("Unknown operator " + symbol);
+        }
+
+        /**
+         * Compares two numbers using the operator.
+         * @param left Left side of the comparison.
+         * @param right Right side of the comparison.
+         * @return Result of the comparison.
+         */
+        public boolean compare(final double left, final double right) {
+            return switch (this) {
+                case LESS -> left < right;
+                case LESS_OR_EQUAL -> left <= right;
+                case GREATER -> left > right;
+                case GREATER_OR_EQUAL -> left >= right;
+                case EQUAL -> left == right;
+                case NOT_EQUAL -> left != right;
+            };
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,61 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.listeners;
+
+import net.jadedmc.chatactions.utils.CombatUtils;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.Projectile;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDamageByEntityEvent;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Listens to the EntityDamageByEntityEvent, which runs every time an entity damages another entity.
+ * Used to know when players are in combat.
+ */
+public class EntityDamageByEntityListener implements Listener {
+
+    /**
+     * Runs when the event is called.
+     * @param event EntityDamageByEntityEvent.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onDamage(@NotNull final EntityDamageByEntityEvent event) {
+        // Players being attacked are in combat.
+        if(event.getEntity() instanceof Player victim) {
+            CombatUtils.tag(victim);
+        }
+
+        // Players attacking, directly or with a projectile, are in combat.
+        if(event.getDamager() instanceof Player attacker) {
+            CombatUtils.tag(attacker);
+        }
+        else if(event.getDamager() instanceof Projectile projectile && projectile.getShooter() instanceof Player shooter) {
+            CombatUtils.tag(shooter);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.listeners;
+
+import net.jadedmc.chatactions.ChatActionsPlugin;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Listens to the PlayerChangedWorldEvent, which runs every time a player moves to a different world.
+ */
+public class PlayerChangedWorldListener implements Listener {
+    private final ChatActionsPlugin plugin;
+
+    /**
+     * Creates the listener.
+     * @param plugin Instance of the plugin.
+     */
+    public PlayerChangedWorldListener(@NotNull final ChatActionsPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Runs when the event is called.
+     * @param event PlayerChangedWorldEvent.
+     */
+    @EventHandler
+    public void onWorldChange(@NotNull final PlayerChangedWorldEvent event) {
+        // Resends the player's commands if the actions they can use have changed.
+        if(plugin.getActionManager().getAvailabilityIndex().update(event.getPlayer())) {
+            event.getPlayer().updateCommands();
+        }
+    }
+}
\ No newline at end of file
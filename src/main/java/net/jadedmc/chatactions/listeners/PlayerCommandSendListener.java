@@ -0,0 +1,67 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.listeners;
+
+import net.jadedmc.chatactions.ChatActionsPlugin;
+import net.jadedmc.chatactions.actions.Action;
+import net.jadedmc.chatactions.actions.AvailabilityIndex;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerCommandSendEvent;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Listens to the PlayerCommandSendEvent, which runs every time the server sends a player their list of commands.
+ * This happens when they join, and when plugins like permission managers change what they can use.
+ */
+public class PlayerCommandSendListener implements Listener {
+    private final ChatActionsPlugin plugin;
+
+    /**
+     * Creates the listener.
+     * @param plugin Instance of the plugin.
+     */
+    public PlayerCommandSendListener(@NotNull final ChatActionsPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Runs when the event is called.
+     * @param event PlayerCommandSendEvent.
+     */
+    @EventHandler
+    public void onCommandSend(@NotNull final PlayerCommandSendEvent event) {
+        final AvailabilityIndex availabilityIndex = plugin.getActionManager().getAvailabilityIndex();
+
+        // The player's groups may have changed, so rebuild what they can use.
+        availabilityIndex.update(event.getPlayer());
+
+        // Hides the commands of actions the player can't use.
+        event.getCommands().removeIf(label -> {
+            final Action action = plugin.getActionManager().getAction(label);
+            return action != null && !availabilityIndex.isAvailable(event.getPlayer(), action);
+        });
+    }
+}
\ No newline at end of file
@@ -0,0 +1,59 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.listeners;
+
+import net.jadedmc.chatactions.ChatActionsPlugin;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Listens to the PlayerJoinEvent, which runs every time a player joins the server.
+ */
+public class PlayerJoinListener implements Listener {
+    private final ChatActionsPlugin plugin;
+
+    /**
+     * Creates the listener.
+     * @param plugin Instance of the plugin.
+     */
+    public PlayerJoinListener(@NotNull final ChatActionsPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Runs when the event is called.
+     * @param event PlayerJoinEvent.
+     */
+    @EventHandler
+    public void onJoin(@NotNull final PlayerJoinEvent event) {
+        // Loads the player's action statistics.
+        plugin.getStatisticsManager().load(event.getPlayer());
+
+        // Delivers any actions used on the player while they were offline.
+        plugin.getQueueManager().deliver(event.getPlayer());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,69 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.listeners;
+
+import net.jadedmc.chatactions.ChatActionsPlugin;
+import net.jadedmc.chatactions.utils.CombatUtils;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Listens to the PlayerQuitEvent, which runs every time a player leaves the server.
+ */
+public class PlayerQuitListener implements Listener {
+    private final ChatActionsPlugin plugin;
+
+    /**
+     * Creates the listener.
+     * @param plugin Instance of the plugin.
+     */
+    public PlayerQuitListener(@NotNull final ChatActionsPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Runs when the event is called.
+     * @param event PlayerQuitEvent.
+     */
+    @EventHandler
+    public void onQuit(@NotNull final PlayerQuitEvent event) {
+        // Lets the player's statistics be removed from memory once they are saved.
+        plugin.getStatisticsManager().unload(event.getPlayer());
+
+        // Stops any action sequences the player is part of.
+        plugin.getSequenceManager().cancel(event.getPlayer());
+
+        // Removes any reciprocal actions the player was part of.
+        plugin.getReciprocalManager().cancel(event.getPlayer());
+
+        // Forgets when the player was last in combat.
+        CombatUtils.remove(event.getPlayer());
+
+        // Forgets which actions the player could use.
+        plugin.getActionManager().getAvailabilityIndex().remove(event.getPlayer());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,94 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.messages;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+
+/**
+ * A message slot with a default message and optional overrides for different client languages.
+ * Overrides are compiled when the action is loaded, so looking one up is a single map lookup.
+ * Locales can be configured exactly (like "pt_br") or by language (like "pt"), which covers every region.
+ */
+public class LocalizedMessage {
+    private final WeightedMessage defaultMessage;
+    private final Map<String, WeightedMessage> overrides;
+    private final boolean empty;
+
+    /**
+     * Creates the message.
+     * @param defaultMessage Message used when there is no override for a player's locale.
+     * @param overrides Compiled overrides, by lowercase locale or language.
+     */
+    public LocalizedMessage(@NotNull final WeightedMessage defaultMessage, @NotNull final Map<String, WeightedMessage> overrides) {
+        this.defaultMessage = defaultMessage;
+        this.overrides = overrides;
+
+        // The message is only empty if no locale has anything to send.
+        boolean empty = defaultMessage.isEmpty();
+        for(final WeightedMessage override : overrides.values()) {
+            empty &= override.isEmpty();
+        }
+        this.empty = empty;
+    }
+
+    /**
+     * Gets the message to use for a locale.
+     * @param locale Locale of the player receiving the message, like "de_de". Null to use the default message.
+     * @return Message for the locale.
+     */
+    @NotNull
+    public WeightedMessage get(@Nullable final String locale) {
+        if(locale == null || this.overrides.isEmpty()) {
+            return this.defaultMessage;
+        }
+
+        // Look for an exact match, then for the language alone.
+        final WeightedMessage override = this.overrides.get(locale);
+        if(override != null) {
+            return override;
+        }
+
+        final int separator = locale.indexOf('_');
+        if(separator > 0) {
+            final WeightedMessage languageOverride = this.overrides.get(locale.substring(0, separator));
+            if(languageOverride != null) {
+                return languageOverride;
+            }
+        }
+
+        return this.defaultMessage;
+    }
+
+    /**
+     * Get if the message has no content in any locale.
+     * @return Whether the default message and every override are empty.
+     */
+    public boolean isEmpty() {
+        return this.empty;
+    }
+}
\ No newline at end of file
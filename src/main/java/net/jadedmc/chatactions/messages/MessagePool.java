@@ -0,0 +1,185 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.messages;
+
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shares compiled messages between every action that uses the same text.
+ * Large catalogues repeat the same permission, usage and error messages many times,
+ * so each unique message is only compiled and stored once.
+ * Templates and single-variant messages never change once created, so they are safe to share.
+ * Messages without placeholders are also translated once, and the component is shared by every send.
+ */
+public class MessagePool {
+    private static final Map<String, MessageTemplate> templates = new ConcurrentHashMap<>();
+    private static final Map<String, MessageTemplate> fixed = new ConcurrentHashMap<>();
+    private static final Map<String, WeightedMessage> singles = new ConcurrentHashMap<>();
+    private static final Map<WeightedMessage, LocalizedMessage> unlocalized = new ConcurrentHashMap<>();
+    private static final LongAdder requests = new LongAdder();
+
+    /**
+     * Removes every message from the pool, so they can be garbage collected.
+     * Called when the plugin is disabled.
+     */
+    public static void clear() {
+        templates.clear();
+        fixed.clear();
+        singles.clear();
+        unlocalized.clear();
+        requests.reset();
+    }
+
+    /**
+     * Gets the shared component of a message that is the same for everyone.
+     * @param message Message being sent, after %sender% and %target% have been replaced.
+     * @return Translated message, null if the message isn't a pooled message without placeholders.
+     */
+    @Nullable
+    public static Component component(@NotNull final String message) {
+        final MessageTemplate template = fixed.get(message);
+        return template == null ? null : template.getComponent();
+    }
+
+    /**
+     * Gets the number of messages without placeholders that have been translated into a shared component.
+     * @return Translated message count.
+     */
+    public static int getComponentCount() {
+        int count = 0;
+        for(final MessageTemplate template : fixed.values()) {
+            if(template.hasComponent()) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Gets the number of unique messages without placeholders in the pool.
+     * @return Fixed template count.
+     */
+    public static int getFixedCount() {
+        return fixed.size();
+    }
+
+    /**
+     * Gets an estimate of the number of characters stored by every template in the pool.
+     * @return Stored characters.
+     */
+    public static long getRetainedChars() {
+        long chars = 0;
+        for(final MessageTemplate template : templates.values()) {
+            chars += template.getRetainedChars();
+        }
+
+        return chars;
+    }
+
+    /**
+     * Gets the number of shared single-variant messages in the pool.
+     * @return Single-variant message count.
+     */
+    public static int getSingleCount() {
+        return singles.size();
+    }
+
+    /**
+     * Gets the number of messages that have been requested from the pool, including repeats.
+     * @return Request count.
+     */
+    public static long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * Gets the number of unique templates in the pool.
+     * @return Template count.
+     */
+    public static int getTemplateCount() {
+        return templates.size();
+    }
+
+    /**
+     * Gets a localized message slot.
+     * Slots without any locale overrides only depend on their default message, so they are shared.
+     * @param defaultMessage Message used when there is no override for a player's locale.
+     * @param overrides Compiled overrides, by lowercase locale or language.
+     * @return Localized message.
+     */
+    @NotNull
+    public static LocalizedMessage localized(@NotNull final WeightedMessage defaultMessage, @NotNull final Map<String, WeightedMessage> overrides) {
+        if(!overrides.isEmpty()) {
+            return new LocalizedMessage(defaultMessage, overrides);
+        }
+
+        return unlocalized.computeIfAbsent(defaultMessage, message -> new LocalizedMessage(message, Collections.emptyMap()));
+    }
+
+    /**
+     * Gets the shared single-variant message for some text, creating it if needed.
+     * @param message Message text.
+     * @return Shared weighted message.
+     */
+    @NotNull
+    public static WeightedMessage single(@NotNull final String message) {
+        requests.increment();
+        return singles.computeIfAbsent(message, key -> new WeightedMessage(new MessageTemplate[]{templates.computeIfAbsent(key, MessagePool::compile)}, new double[]{1}));
+    }
+
+    /**
+     * Gets the shared template for some text, compiling it if needed.
+     * @param message Message text.
+     * @return Shared template.
+     */
+    @NotNull
+    public static MessageTemplate template(@NotNull final String message) {
+        requests.increment();
+        return templates.computeIfAbsent(message, MessagePool::compile);
+    }
+
+    /**
+     * Compiles a template, and remembers it by its text if it is the same for everyone.
+     * @param message Message text.
+     * @return Compiled template.
+     */
+    @NotNull
+    private static MessageTemplate compile(@NotNull final String message) {
+        final MessageTemplate template = new MessageTemplate(message);
+        if(template.isFixed()) {
+            fixed.putIfAbsent(template.getSource(), template);
+        }
+
+        return template;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,182 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.messages;
+
+import net.jadedmc.chatactions.utils.ChatUtils;
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * A message that has been compiled ahead of time.
+ * Legacy color codes are translated once, and the message is split around its %sender% and %target%
+ * placeholders, so rendering it is a single pass that only copies text.
+ * Messages without any placeholders are the same for everyone, so they are also translated into a component once.
+ */
+public class MessageTemplate {
+    private static final String SENDER_PLACEHOLDER = "%sender%";
+    private static final String TARGET_PLACEHOLDER = "%target%";
+    private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("%[^%]+%");
+    private static final byte SENDER = 0;
+    private static final byte TARGET = 1;
+
+    private final String source;
+    private final String[] literals;
+    private final byte[] placeholders;
+    private final int literalLength;
+    private final boolean fixed;
+    private Component component = null;
+
+    /**
+     * Compiles a message.
+     * @param message Message to compile, which may use legacy color codes.
+     */
+    public MessageTemplate(@NotNull final String message) {
+        this.source = ChatUtils.replaceLegacy(message);
+
+        final List<String> literals = new ArrayList<>();
+        final List<Byte> placeholders = new ArrayList<>();
+        int literalLength = 0;
+        int start = 0;
+
+        // Split the message at each placeholder.
+        while(true) {
+            final int senderIndex = this.source.indexOf(SENDER_PLACEHOLDER, start);
+            final int targetIndex = this.source.indexOf(TARGET_PLACEHOLDER, start);
+
+            if(senderIndex < 0 && targetIndex < 0) {
+                break;
+            }
+
+            final boolean sender = targetIndex < 0 || (senderIndex >= 0 && senderIndex < targetIndex);
+            final int index = sender ? senderIndex : targetIndex;
+
+            literals.add(this.source.substring(start, index));
+            placeholders.add(sender ? SENDER : TARGET);
+            literalLength += index - start;
+            start = index + (sender ? SENDER_PLACEHOLDER.length() : TARGET_PLACEHOLDER.length());
+        }
+
+        literals.add(this.source.substring(start));
+        literalLength += this.source.length() - start;
+
+        this.literals = literals.toArray(new String[0]);
+        this.placeholders = new byte[placeholders.size()];
+        for(int i = 0; i < this.placeholders.length; i++) {
+            this.placeholders[i] = placeholders.get(i);
+        }
+        this.literalLength = literalLength;
+
+        // PlaceholderAPI placeholders are replaced when the message is sent, so those messages can't be translated ahead of time.
+        this.fixed = this.placeholders.length == 0 && !PLACEHOLDER_PATTERN.matcher(this.source).find();
+    }
+
+    /**
+     * Gets the message translated into a component, if it is the same for everyone.
+     * The component is translated the first time it is needed, and then shared by every send.
+     * @return Translated message, null if the message has placeholders.
+     */
+    @Nullable
+    public Component getComponent() {
+        if(!this.fixed) {
+            return null;
+        }
+
+        // Components can't be changed, so translating one twice at the same time is harmless.
+        Component translated = this.component;
+        if(translated == null) {
+            translated = ChatUtils.translate(this.source);
+            this.component = translated;
+        }
+
+        return translated;
+    }
+
+    /**
+     * Get if the message has already been translated into a component.
+     * @return Whether the component is stored.
+     */
+    public boolean hasComponent() {
+        return this.component != null;
+    }
+
+    /**
+     * Gets the number of characters stored by the template.
+     * @return Stored characters.
+     */
+    public int getRetainedChars() {
+        return this.source.length() + (this.placeholders.length == 0 ? 0 : this.literalLength);
+    }
+
+    /**
+     * Gets the compiled message, with placeholders left in.
+     * @return Template source.
+     */
+    @NotNull
+    public String getSource() {
+        return this.source;
+    }
+
+    /**
+     * Get if the message has no placeholders of any kind, so it is the same for everyone.
+     * @return Whether the message is fixed.
+     */
+    public boolean isFixed() {
+        return this.fixed;
+    }
+
+    /**
+     * Get if the message has no content.
+     * @return Whether the message is empty.
+     */
+    public boolean isEmpty() {
+        return this.source.isEmpty();
+    }
+
+    /**
+     * Renders the message with its placeholders filled in.
+     * @param senderName Value of %sender%.
+     * @param targetName Value of %target%.
+     * @return Rendered message.
+     */
+    @NotNull
+    public String render(@NotNull final String senderName, @NotNull final String targetName) {
+        // Messages without placeholders never need to be copied.
+        if(this.placeholders.length == 0) {
+            return this.source;
+        }
+
+        final StringBuilder builder = new StringBuilder(this.literalLength + this.placeholders.length * 16);
+        for(int i = 0; i < this.placeholders.length; i++) {
+            builder.append(this.literals[i]).append(this.placeholders[i] == SENDER ? senderName : targetName);
+        }
+
+        return builder.append(this.literals[this.placeholders.length]).toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,205 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.messages;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A message slot that can have several variants, one of which is picked at random each time it is used.
+ * Variants are picked according to their weights using an alias table (Vose's alias method),
+ * so picking a variant takes constant time and does not allocate.
+ */
+public class WeightedMessage {
+    private final MessageTemplate[] variants;
+    private final double[] probabilities;
+    private final int[] aliases;
+    private final boolean empty;
+
+    /**
+     * Creates a weighted message.
+     * @param variants Compiled variants of the message.
+     * @param weights Weight of each variant.
+     */
+    public WeightedMessage(@NotNull final MessageTemplate[] variants, @NotNull final double[] weights) {
+        this.variants = variants;
+        this.probabilities = new double[variants.length];
+        this.aliases = new int[variants.length];
+
+        // The message is empty only if every variant is.
+        boolean empty = true;
+        for(final MessageTemplate variant : variants) {
+            empty &= variant.isEmpty();
+        }
+        this.empty = empty;
+
+        double totalWeight = 0;
+        for(final double weight : weights) {
+            totalWeight += weight;
+        }
+
+        // Scale the weights so that an even split would give each variant a weight of 1.
+        final int count = variants.length;
+        final double[] scaled = new double[count];
+        final int[] small = new int[count];
+        final int[] large = new int[count];
+        int smallSize = 0;
+        int largeSize = 0;
+
+        for(int i = 0; i < count; i++) {
+            scaled[i] = weights[i] * count / totalWeight;
+
+            if(scaled[i] < 1) {
+                small[smallSize++] = i;
+            }
+            else {
+                large[largeSize++] = i;
+            }
+        }
+
+        // Pair each under-weighted variant with an over-weighted one that fills the rest of its column.
+        while(smallSize > 0 && largeSize > 0) {
+            final int less = small[--smallSize];
+            final int more = large[--largeSize];
+
+            this.probabilities[less] = scaled[less];
+            this.aliases[less] = more;
+            scaled[more] = (scaled[more] + scaled[less]) - 1;
+
+            if(scaled[more] < 1) {
+                small[smallSize++] = more;
+            }
+            else {
+                large[largeSize++] = more;
+            }
+        }
+
+        // Anything left over fills its column completely, give or take rounding errors.
+        while(largeSize > 0) {
+            this.probabilities[large[--largeSize]] = 1;
+        }
+        while(smallSize > 0) {
+            this.probabilities[small[--smallSize]] = 1;
+        }
+    }
+
+    /**
+     * Loads a message slot from a configuration.
+     * The slot can be a single message, a list of messages, or a list of messages with a text and weight.
+     * @param config Configuration Section containing the message.
+     * @param path Path of the message.
+     * @return Loaded message, empty if it is not set.
+     */
+    @NotNull
+    public static WeightedMessage load(@NotNull final ConfigurationSection config, @NotNull final String path) {
+        // Use an empty message if the slot is not configured.
+        if(!config.isSet(path)) {
+            return single("");
+        }
+
+        // A single message.
+        if(!config.isList(path)) {
+            return single(config.getString(path, ""));
+        }
+
+        final List<MessageTemplate> variants = new ArrayList<>();
+        final List<Double> weights = new ArrayList<>();
+        final List<?> entries = config.getList(path);
+
+        for(final Object entry : entries == null ? List.of() : entries) {
+            // Plain strings have a weight of 1.
+            if(entry instanceof String text) {
+                variants.add(MessagePool.template(text));
+                weights.add(1.0);
+                continue;
+            }
+
+            if(entry instanceof Map<?, ?> variant) {
+                final Object text = variant.get("text");
+                final Object weight = variant.get("weight");
+                final double parsedWeight = weight instanceof Number number ? number.doubleValue() : 1;
+
+                // Skip variants that could never be picked.
+                if(text == null || parsedWeight <= 0) {
+                    continue;
+                }
+
+                variants.add(MessagePool.template(text.toString()));
+                weights.add(parsedWeight);
+            }
+        }
+
+        if(variants.isEmpty()) {
+            return single("");
+        }
+
+        final double[] weightArray = new double[weights.size()];
+        for(int i = 0; i < weightArray.length; i++) {
+            weightArray[i] = weights.get(i);
+        }
+
+        return new WeightedMessage(variants.toArray(new MessageTemplate[0]), weightArray);
+    }
+
+    /**
+     * Gets a message with only one variant.
+     * Messages with the same text share one instance.
+     * @param message Message text.
+     * @return Weighted message.
+     */
+    @NotNull
+    public static WeightedMessage single(@NotNull final String message) {
+        return MessagePool.single(message);
+    }
+
+    /**
+     * Get if the message has no content.
+     * @return Whether every variant is empty.
+     */
+    public boolean isEmpty() {
+        return this.empty;
+    }
+
+    /**
+     * Picks a random variant, according to the variant weights.
+     * @return Picked variant.
+     */
+    @NotNull
+    public MessageTemplate pick() {
+        // Skip the random roll if there is nothing to pick from.
+        if(this.variants.length == 1) {
+            return this.variants[0];
+        }
+
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final int column = random.nextInt(this.variants.length);
+        return random.nextDouble() < this.probabilities[column] ? this.variants[column] : this.variants[this.aliases[column]];
+    }
+}
\ No newline at end of file
@@ -0,0 +1,185 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.placeholders;
+
+import me.clip.placeholderapi.expansion.PlaceholderExpansion;
+import net.jadedmc.chatactions.ChatActionsPlugin;
+import net.jadedmc.chatactions.actions.Action;
+import net.jadedmc.chatactions.statistics.Leaderboard;
+import net.jadedmc.chatactions.statistics.PlayerStatistics;
+import org.bukkit.OfflinePlayer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Registers the plugin's placeholders with PlaceholderAPI.
+ */
+public class ChatActionsExpansion extends PlaceholderExpansion {
+    private final ChatActionsPlugin plugin;
+
+    /**
+     * Creates the expansion.
+     * @param plugin Instance of the plugin.
+     */
+    public ChatActionsExpansion(@NotNull final ChatActionsPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Gets the author of the expansion.
+     * @return Expansion author.
+     */
+    @Override
+    @NotNull
+    public String getAuthor() {
+        return "JadedMC";
+    }
+
+    /**
+     * Gets the identifier used at the start of every placeholder.
+     * @return Expansion identifier.
+     */
+    @Override
+    @NotNull
+    public String getIdentifier() {
+        return "chatactions";
+    }
+
+    /**
+     * Gets the version of the expansion.
+     * @return Expansion version.
+     */
+    @Override
+    @NotNull
+    public String getVersion() {
+        return plugin.getDescription().getVersion();
+    }
+
+    /**
+     * Keeps the expansion registered when PlaceholderAPI reloads, since it is provided by the plugin.
+     * @return true.
+     */
+    @Override
+    public boolean persist() {
+        return true;
+    }
+
+    /**
+     * Processes a placeholder request.
+     * @param player Player the placeholder is being requested for.
+     * @param params Placeholder, without the identifier.
+     * @return Placeholder value, null if the placeholder is not recognized.
+     */
+    @Override
+    @Nullable
+    public String onRequest(@Nullable final OfflinePlayer player, @NotNull final String params) {
+        // Leaderboard placeholders are in the form top_<action>_<sent/received>_<rank>_<name/value>.
+        if(params.startsWith("top_")) {
+            return onLeaderboardRequest(params.substring(4));
+        }
+
+        if(player == null) {
+            return "";
+        }
+
+        // Placeholders are in the form <action>_<sent/received>.
+        final int split = params.lastIndexOf('_');
+        if(split <= 0) {
+            return null;
+        }
+
+        // Make sure the action exists.
+        final Action action = plugin.getActionManager().getAction(params.substring(0, split));
+        if(action == null) {
+            return null;
+        }
+
+        final PlayerStatistics statistics = plugin.getStatisticsManager().getStatistics(player.getUniqueId());
+
+        switch (params.substring(split + 1)) {
+            case "sent" -> {
+                return statistics == null ? "0" : String.valueOf(statistics.getSent(action.getName()));
+            }
+            case "received" -> {
+                return statistics == null ? "0" : String.valueOf(statistics.getReceived(action.getName()));
+            }
+            default -> {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Processes a leaderboard placeholder request.
+     * @param params Placeholder, without the identifier and "top_".
+     * @return Placeholder value, null if the placeholder is not recognized.
+     */
+    @Nullable
+    private String onLeaderboardRequest(@NotNull final String params) {
+        // Split the placeholder from the end, since action names can contain underscores.
+        final int fieldSplit = params.lastIndexOf('_');
+        final int rankSplit = params.lastIndexOf('_', fieldSplit - 1);
+        final int typeSplit = params.lastIndexOf('_', rankSplit - 1);
+        if(typeSplit <= 0) {
+            return null;
+        }
+
+        // Make sure the action exists.
+        final Action action = plugin.getActionManager().getAction(params.substring(0, typeSplit));
+        if(action == null) {
+            return null;
+        }
+
+        final Leaderboard leaderboard;
+        switch (params.substring(typeSplit + 1, rankSplit)) {
+            case "sent" -> leaderboard = plugin.getStatisticsManager().getSentLeaderboard(action.getName());
+            case "received" -> leaderboard = plugin.getStatisticsManager().getReceivedLeaderboard(action.getName());
+            default -> {
+                return null;
+            }
+        }
+
+        final Leaderboard.Entry entry;
+        try {
+            final int rank = Integer.parseInt(params.substring(rankSplit + 1, fieldSplit));
+            entry = leaderboard == null ? null : leaderboard.getEntry(rank);
+        }
+        catch (NumberFormatException exception) {
+            return null;
+        }
+
+        switch (params.substring(fieldSplit + 1)) {
+            case "name" -> {
+                return entry == null ? "" : entry.getPlayerName();
+            }
+            case "value" -> {
+                return entry == null ? "0" : String.valueOf(entry.getValue());
+            }
+            default -> {
+                return null;
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,417 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.placeholders;
+
+import me.clip.placeholderapi.PlaceholderAPI;
+import net.jadedmc.chatactions.ChatActionsPlugin;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resolves slow PlaceholderAPI placeholders on background threads while a message is being sent.
+ * Only placeholders listed in the config are resolved this way, as they must be safe to use off the main thread.
+ * Each (recipient, placeholder) pair is its own task, and every placeholder has a timeout after which
+ * its fallback text is used instead, so a hung expansion can't hold up the server for more than that.
+ * Expansions that keep timing out are skipped for a while, using their fallbacks without waiting at all.
+ */
+public class PlaceholderResolver {
+    private final boolean enabled;
+    private final Map<String, AsyncPlaceholder> placeholders = new HashMap<>();
+    private final Map<String, ExpansionMetrics> metrics = new ConcurrentHashMap<>();
+    private int breakerTimeouts;
+    private long breakerCooldownNanos;
+    private ThreadPoolExecutor executor;
+
+    /**
+     * Creates the resolver.
+     * @param plugin Instance of the plugin.
+     */
+    public PlaceholderResolver(@NotNull final ChatActionsPlugin plugin) {
+        final ConfigurationSection config = plugin.getConfigManager().getConfig().getConfigurationSection("async-placeholders");
+
+        // Background resolving only applies to PlaceholderAPI placeholders.
+        if(config == null || !config.getBoolean("enabled", false) || !plugin.getHookManager().usePlaceholderAPI()) {
+            this.enabled = false;
+            return;
+        }
+
+        // Load the placeholders that are safe to resolve in the background.
+        final long defaultTimeout = Math.max(1, config.getLong("default-timeout", 50));
+        for(final Map<?, ?> placeholderConfig : config.getMapList("placeholders")) {
+            final Object placeholder = placeholderConfig.get("placeholder");
+            if(placeholder == null || placeholder.toString().length() < 3 || !placeholder.toString().startsWith("%") || !placeholder.toString().endsWith("%")) {
+                plugin.getLogger().warning("Skipping invalid async placeholder " + placeholder + ".");
+                continue;
+            }
+
+            final Object timeout = placeholderConfig.get("timeout");
+            final Object fallback = placeholderConfig.get("fallback");
+            this.placeholders.put(placeholder.toString(), new AsyncPlaceholder(placeholder.toString(),
+                    timeout instanceof Number number ? Math.max(1, number.longValue()) : defaultTimeout,
+                    fallback == null ? "" : fallback.toString()));
+        }
+
+        this.enabled = !this.placeholders.isEmpty();
+        if(!this.enabled) {
+            return;
+        }
+
+        // Expansions that time out too many times in a row are skipped until the cooldown is over.
+        this.breakerTimeouts = Math.max(1, config.getInt("breaker.timeouts", 3));
+        this.breakerCooldownNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, config.getLong("breaker.cooldown", 5000)));
+
+        // Tasks that can't fit in the queue use their fallback right away rather than waiting.
+        final int threads = Math.max(1, config.getInt("threads", 4));
+        final AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(Math.max(64, config.getInt("queue-size", 1024))), runnable -> {
+            final Thread thread = new Thread(runnable, "ChatActions Placeholders #" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Gets how each expansion with background placeholders has been performing.
+     * @return Metrics by expansion identifier.
+     */
+    @NotNull
+    public Map<String, ExpansionMetrics> getMetrics() {
+        return Collections.unmodifiableMap(this.metrics);
+    }
+
+    /**
+     * Get if any placeholders are resolved in the background.
+     * @return Whether the resolver is enabled.
+     */
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Replaces the background placeholders in a message for a single recipient.
+     * Must be called on the main thread.
+     * @param recipient Player the message is being sent to.
+     * @param message Message being sent.
+     * @return Message with the background placeholders replaced.
+     */
+    @NotNull
+    public String resolve(@NotNull final Player recipient, @NotNull final String message) {
+        // Skip the lookup for messages that can't contain a placeholder.
+        if(!this.enabled || message.indexOf('%') == -1) {
+            return message;
+        }
+
+        final List<String> messages = resolve(Collections.singletonList(recipient), message);
+        return messages == null ? message : messages.get(0);
+    }
+
+    /**
+     * Replaces the background placeholders in a message for each recipient.
+     * Every placeholder for every recipient is started before any are waited on, so the total wait is
+     * bounded by the longest timeout rather than the sum of them.
+     * Must be called on the main thread.
+     * @param recipients Players the message is being sent to.
+     * @param message Message being sent.
+     * @return Message for each recipient in the same order, or null if the message has no background placeholders.
+     */
+    @Nullable
+    public List<String> resolve(@NotNull final List<? extends Player> recipients, @NotNull final String message) {
+        if(!this.enabled || recipients.isEmpty()) {
+            return null;
+        }
+
+        final List<AsyncPlaceholder> found = find(message);
+        if(found.isEmpty()) {
+            return null;
+        }
+
+        // Start resolving every placeholder for every recipient.
+        final long start = System.nanoTime();
+        final List<Future<String>> futures = new ArrayList<>(recipients.size() * found.size());
+        for(final Player recipient : recipients) {
+            for(final AsyncPlaceholder placeholder : found) {
+                final ExpansionMetrics expansionMetrics = this.metrics.computeIfAbsent(placeholder.expansion, key -> new ExpansionMetrics());
+
+                // Skip expansions that keep timing out, rather than waiting on them again.
+                if(expansionMetrics.isTripped(start)) {
+                    expansionMetrics.skipped.increment();
+                    futures.add(null);
+                    continue;
+                }
+
+                try {
+                    futures.add(this.executor.submit(() -> {
+                        final long taskStart = System.nanoTime();
+                        final String value = PlaceholderAPI.setPlaceholders(recipient, placeholder.text);
+                        expansionMetrics.record(System.nanoTime() - taskStart);
+                        return value;
+                    }));
+                }
+                catch (RejectedExecutionException exception) {
+                    // The pool is backed up, so use the fallback.
+                    expansionMetrics.timeouts.increment();
+                    futures.add(null);
+                }
+            }
+        }
+
+        // Collect the results, using fallbacks for anything that took too long.
+        final List<String> messages = new ArrayList<>(recipients.size());
+        int index = 0;
+        for(int recipient = 0; recipient < recipients.size(); recipient++) {
+            String resolved = message;
+
+            for(final AsyncPlaceholder placeholder : found) {
+                final Future<String> future = futures.get(index++);
+                resolved = resolved.replace(placeholder.text, getValue(future, placeholder, start));
+            }
+
+            messages.add(resolved);
+        }
+
+        return messages;
+    }
+
+    /**
+     * Stops the background threads.
+     * Called when the plugin is disabled.
+     */
+    public void shutdown() {
+        if(this.executor != null) {
+            this.executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Finds the background placeholders used in a message.
+     * @param message Message to search.
+     * @return Background placeholders in the message, without duplicates.
+     */
+    @NotNull
+    private List<AsyncPlaceholder> find(@NotNull final String message) {
+        final List<AsyncPlaceholder> found = new ArrayList<>();
+
+        int start = message.indexOf('%');
+        while(start != -1) {
+            final int end = message.indexOf('%', start + 1);
+            if(end == -1) {
+                break;
+            }
+
+            final AsyncPlaceholder placeholder = this.placeholders.get(message.substring(start, end + 1));
+            if(placeholder != null) {
+                if(!found.contains(placeholder)) {
+                    found.add(placeholder);
+                }
+
+                start = message.indexOf('%', end + 1);
+            }
+            else {
+                // The closing % may be the start of the next placeholder.
+                start = end;
+            }
+        }
+
+        return found;
+    }
+
+    /**
+     * Waits for a placeholder to be resolved, up to its timeout.
+     * @param future Task resolving the placeholder, null if it could not be started.
+     * @param placeholder Placeholder being resolved.
+     * @param start Time (from System.nanoTime()) the placeholders started resolving.
+     * @return Resolved value, or the fallback if it took too long.
+     */
+    @NotNull
+    private String getValue(@Nullable final Future<String> future, @NotNull final AsyncPlaceholder placeholder, final long start) {
+        if(future == null) {
+            return placeholder.fallback;
+        }
+
+        final long remaining = placeholder.timeoutNanos - (System.nanoTime() - start);
+        try {
+            // Use results that are already done even if the timeout has passed.
+            return remaining > 0 ? future.get(remaining, TimeUnit.NANOSECONDS) : future.isDone() ? future.get() : timeout(future, placeholder);
+        }
+        catch (TimeoutException exception) {
+            return timeout(future, placeholder);
+        }
+        catch (ExecutionException exception) {
+            exception.printStackTrace();
+            return placeholder.fallback;
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return placeholder.fallback;
+        }
+    }
+
+    /**
+     * Gives up on a placeholder that took too long.
+     * @param future Task resolving the placeholder.
+     * @param placeholder Placeholder being resolved.
+     * @return Fallback of the placeholder.
+     */
+    @NotNull
+    private String timeout(@NotNull final Future<String> future, @NotNull final AsyncPlaceholder placeholder) {
+        future.cancel(true);
+        this.metrics.get(placeholder.expansion).timedOut(this.breakerTimeouts, this.breakerCooldownNanos);
+        return placeholder.fallback;
+    }
+
+    /**
+     * Represents a placeholder that is resolved in the background.
+     */
+    private static class AsyncPlaceholder {
+        private final String text;
+        private final String expansion;
+        private final long timeoutNanos;
+        private final String fallback;
+
+        /**
+         * Creates the placeholder.
+         * @param text Placeholder, including the % signs.
+         * @param timeout Time (in milliseconds) to wait before using the fallback.
+         * @param fallback Text used when the placeholder takes too long.
+         */
+        private AsyncPlaceholder(@NotNull final String text, final long timeout, @NotNull final String fallback) {
+            this.text = text;
+            this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeout);
+            this.fallback = fallback;
+
+            // The expansion is the part of the placeholder before the first underscore.
+            final int underscore = text.indexOf('_');
+            this.expansion = underscore == -1 ? text.substring(1, text.length() - 1) : text.substring(1, underscore);
+        }
+    }
+
+    /**
+     * Keeps track of how quickly an expansion resolves its placeholders.
+     */
+    public static class ExpansionMetrics {
+        private final LongAdder resolved = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder skipped = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicInteger consecutiveTimeouts = new AtomicInteger();
+        private volatile boolean tripped = false;
+        private volatile long trippedUntil = 0;
+
+        /**
+         * Records a placeholder that finished resolving.
+         * A placeholder that resolves closes the breaker again.
+         * @param nanos Time (in nanoseconds) it took.
+         */
+        private void record(final long nanos) {
+            this.resolved.increment();
+            this.totalNanos.add(nanos);
+            this.consecutiveTimeouts.set(0);
+            this.tripped = false;
+        }
+
+        /**
+         * Records a placeholder that took too long, tripping the breaker if it keeps happening.
+         * Once the cooldown is over, a single timeout trips the breaker again until a placeholder resolves.
+         * @param breakerTimeouts Number of timeouts in a row that trip the breaker.
+         * @param cooldownNanos Time (in nanoseconds) the expansion is skipped for once the breaker trips.
+         */
+        private void timedOut(final int breakerTimeouts, final long cooldownNanos) {
+            this.timeouts.increment();
+
+            if(this.consecutiveTimeouts.incrementAndGet() >= breakerTimeouts) {
+                this.trippedUntil = System.nanoTime() + cooldownNanos;
+                this.tripped = true;
+            }
+        }
+
+        /**
+         * Get if the expansion is being skipped because it keeps timing out.
+         * @param now Current time, from System.nanoTime().
+         * @return Whether the breaker is tripped.
+         */
+        private boolean isTripped(final long now) {
+            return this.tripped && now - this.trippedUntil < 0;
+        }
+
+        /**
+         * Gets the average time it took to resolve a placeholder.
+         * @return Average latency in nanoseconds.
+         */
+        public long getAverageNanos() {
+            final long count = this.resolved.sum();
+            return count == 0 ? 0 : this.totalNanos.sum() / count;
+        }
+
+        /**
+         * Gets the number of placeholders that finished resolving.
+         * @return Resolved count.
+         */
+        public long getResolved() {
+            return this.resolved.sum();
+        }
+
+        /**
+         * Gets the number of placeholders that used their fallback without waiting, because the expansion kept timing out.
+         * @return Skipped count.
+         */
+        public long getSkipped() {
+            return this.skipped.sum();
+        }
+
+        /**
+         * Get if the expansion is currently being skipped because it keeps timing out.
+         * @return Whether the breaker is tripped.
+         */
+        public boolean isTripped() {
+            return isTripped(System.nanoTime());
+        }
+
+        /**
+         * Gets the number of placeholders that used their fallback because they took too long.
+         * @return Timeout count.
+         */
+        public long getTimeouts() {
+            return this.timeouts.sum();
+        }
+    }
+}
\ No newline at end of file
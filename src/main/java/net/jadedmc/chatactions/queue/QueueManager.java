@@ -0,0 +1,319 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.queue;
+
+import net.jadedmc.chatactions.ChatActionsPlugin;
+import net.jadedmc.chatactions.actions.Action;
+import net.jadedmc.chatactions.utils.ChatUtils;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Manages actions that are used on offline players, delivering them when the player next joins.
+ * All disk access happens on a dedicated queue thread, so the main thread never waits on the queue file.
+ */
+public class QueueManager {
+    private final ChatActionsPlugin plugin;
+    private final Map<UUID, Integer> pendingCounts = new ConcurrentHashMap<>();
+    private final Set<UUID> delivering = ConcurrentHashMap.newKeySet();
+    private volatile boolean loaded = false;
+    private final boolean enabled;
+    private final int maxPerTarget;
+    private final String queuedMessage;
+    private final String fullMessage;
+    private final String deliveryMessage;
+    private QueueStorage storage;
+    private ScheduledExecutorService executor;
+
+    /**
+     * Creates the Queue Manager.
+     * @param plugin Instance of the plugin.
+     */
+    public QueueManager(@NotNull final ChatActionsPlugin plugin) {
+        this.plugin = plugin;
+
+        final ConfigurationSection config = plugin.getConfigManager().getConfig().getConfigurationSection("offline-queue");
+
+        // Use the defaults if the queue has not been configured.
+        if(config == null) {
+            this.enabled = false;
+            this.maxPerTarget = 10;
+            this.queuedMessage = "";
+            this.fullMessage = "";
+            this.deliveryMessage = "";
+            return;
+        }
+
+        this.enabled = config.getBoolean("enabled", false);
+        this.maxPerTarget = config.getInt("max-per-target", 10);
+        this.queuedMessage = config.getString("messages.queued-message", "");
+        this.fullMessage = config.getString("messages.full-message", "");
+        this.deliveryMessage = config.getString("messages.delivery-message", "");
+
+        // Don't create the queue file if the queue is disabled.
+        if(!this.enabled) {
+            return;
+        }
+
+        this.storage = new QueueStorage(new File(new File(plugin.getDataFolder(), "queue"), "pending.dat"));
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "ChatActions Offline Queue");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Load the pending counts in the background.
+        // Anything else run on the queue thread waits for this, so queued actions always see the loaded counts.
+        this.executor.execute(() -> {
+            try {
+                this.pendingCounts.putAll(this.storage.open());
+            }
+            catch (IOException exception) {
+                exception.printStackTrace();
+                return;
+            }
+
+            // Deliver to players who joined while the queue was loading.
+            plugin.getServer().getScheduler().runTask(plugin, () -> {
+                this.loaded = true;
+
+                for(final Player player : plugin.getServer().getOnlinePlayers()) {
+                    deliver(player);
+                }
+            });
+        });
+
+        // Periodically remove delivered actions from the queue file.
+        final long compactionInterval = Math.max(1, config.getLong("compaction-interval", 300));
+        this.executor.scheduleWithFixedDelay(this::compact, compactionInterval, compactionInterval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Get if actions can be queued for offline players.
+     * @return Whether the offline queue is enabled.
+     */
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Queues an action for a player who is not online.
+     * The target is looked up on the queue thread, since it may not be in the server's user cache.
+     * @param sender Player who used the action.
+     * @param targetName Name of the offline player.
+     * @param action Action that was used.
+     */
+    public void queue(@NotNull final Player sender, @NotNull final String targetName, @NotNull final Action action) {
+        this.executor.execute(() -> {
+            // Resolves the target, which can block if the player is not in the user cache.
+            @SuppressWarnings("deprecation")
+            final OfflinePlayer target = plugin.getServer().getOfflinePlayer(targetName);
+
+            // Make sure the target is a real player.
+            if(!target.hasPlayedBefore() || target.getName() == null) {
+                send(sender, "<red><bold>Error</bold> <dark_gray>» <red>" + targetName + " has never played on this server!");
+                return;
+            }
+
+            final UUID targetUUID = target.getUniqueId();
+
+            // Prevents players from flooding someone's queue.
+            if(this.pendingCounts.getOrDefault(targetUUID, 0) >= this.maxPerTarget) {
+                send(sender, this.fullMessage.replace("%target%", target.getName()));
+                return;
+            }
+
+            this.pendingCounts.merge(targetUUID, 1, Integer::sum);
+            try {
+                this.storage.append(new QueuedAction(targetUUID, action.getName(), sender.getName(), System.currentTimeMillis()));
+            }
+            catch (IOException exception) {
+                exception.printStackTrace();
+            }
+
+            // The sender has used the action now, the target is counted when it is delivered.
+            plugin.getServer().getScheduler().runTask(plugin, () -> {
+                if(sender.isOnline()) {
+                    plugin.getStatisticsManager().recordUse(action, sender, null);
+                }
+            });
+
+            send(sender, this.queuedMessage.replace("%target%", target.getName()));
+        });
+    }
+
+    /**
+     * Delivers all actions waiting for a player.
+     * Called when the player joins the server.
+     * @param player Player to deliver actions to.
+     */
+    public void deliver(@NotNull final Player player) {
+        final UUID playerUUID = player.getUniqueId();
+
+        // Skip players who have nothing waiting for them, without touching the queue file.
+        // Players who join before the queue has loaded are delivered to once it has.
+        if(!this.enabled || !this.loaded || !this.pendingCounts.containsKey(playerUUID) || !this.delivering.add(playerUUID)) {
+            return;
+        }
+
+        // Read the pending actions in the background, then send them on the main thread.
+        this.executor.execute(() -> {
+            try {
+                final List<QueuedAction> queuedActions = this.storage.read(playerUUID);
+                plugin.getServer().getScheduler().runTask(plugin, () -> sendQueuedActions(player, queuedActions));
+            }
+            catch (IOException exception) {
+                this.delivering.remove(playerUUID);
+                exception.printStackTrace();
+            }
+        });
+    }
+
+    /**
+     * Closes the queue file, waiting for any pending writes to finish.
+     * Called when the plugin is disabled.
+     */
+    public void shutdown() {
+        if(this.executor == null) {
+            return;
+        }
+
+        this.executor.execute(() -> {
+            try {
+                this.storage.close();
+            }
+            catch (IOException exception) {
+                exception.printStackTrace();
+            }
+        });
+        this.executor.shutdown();
+
+        try {
+            if(!this.executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Timed out while saving the offline queue.");
+            }
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Compacts the queue file if enough actions have been delivered.
+     * Runs on the queue thread.
+     */
+    private void compact() {
+        try {
+            if(this.storage.needsCompaction()) {
+                this.storage.compact();
+            }
+        }
+        catch (IOException exception) {
+            exception.printStackTrace();
+        }
+    }
+
+    /**
+     * Sends a message to the player who queued an action.
+     * Runs on the queue thread, so the message is sent from the main thread.
+     * @param sender Player who queued the action.
+     * @param message Message to send, skipped if empty.
+     */
+    private void send(@NotNull final Player sender, @NotNull final String message) {
+        if(message.isEmpty()) {
+            return;
+        }
+
+        plugin.getServer().getScheduler().runTask(plugin, () -> {
+            // Skip if the sender has left in the meantime.
+            if(sender.isOnline()) {
+                ChatUtils.chat(sender, message);
+            }
+        });
+    }
+
+    /**
+     * Sends a batch of queued actions to a player, then removes them from the queue.
+     * Runs on the main thread.
+     * @param player Player to send the actions to.
+     * @param queuedActions Actions to send.
+     */
+    private void sendQueuedActions(@NotNull final Player player, @NotNull final List<QueuedAction> queuedActions) {
+        final UUID playerUUID = player.getUniqueId();
+
+        // Keep the actions queued if the player left before they could be delivered.
+        if(!player.isOnline() || queuedActions.isEmpty()) {
+            this.delivering.remove(playerUUID);
+            return;
+        }
+
+        if(!this.deliveryMessage.isEmpty()) {
+            ChatUtils.chat(player, this.deliveryMessage);
+        }
+
+        for(final QueuedAction queuedAction : queuedActions) {
+            final Action action = plugin.getActionManager().getAction(queuedAction.getActionName());
+
+            // Skip actions that have been removed since they were queued.
+            if(action == null) {
+                continue;
+            }
+
+            ChatUtils.chat(player, action.getTargetMessage(queuedAction.getSenderName(), player));
+
+            // Records the delivery like any other use of the action.
+            plugin.getStatisticsManager().recordReceived(action, player);
+            plugin.getAuditLog().log(action, queuedAction.getSenderName(), player);
+        }
+
+        // Only remove the actions that were delivered, in case more were queued in the meantime.
+        final int delivered = queuedActions.size();
+        this.pendingCounts.computeIfPresent(playerUUID, (uuid, count) -> count > delivered ? count - delivered : null);
+        this.executor.execute(() -> {
+            try {
+                this.storage.clear(playerUUID, delivered);
+            }
+            catch (IOException exception) {
+                exception.printStackTrace();
+            }
+            finally {
+                this.delivering.remove(playerUUID);
+            }
+        });
+    }
+}
\ No newline at end of file
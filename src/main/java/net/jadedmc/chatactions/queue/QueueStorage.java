@@ -0,0 +1,362 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.queue;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Stores queued actions in an append-only file.
+ * Only the offsets of pending records are kept in memory, the records themselves stay on disk until delivered.
+ * Not thread safe, all access is expected to come from the queue thread.
+ */
+public class QueueStorage {
+    private static final byte ENTRY = 0;
+    private static final byte CLEAR = 1;
+    private static final int HEADER_SIZE = Integer.BYTES;
+    private static final int MIN_DEAD_RECORDS = 64;
+
+    private final File file;
+    private final Map<UUID, List<Long>> index = new HashMap<>();
+    private final ByteBuffer lengthBuffer = ByteBuffer.allocate(HEADER_SIZE);
+    private FileChannel channel;
+    private long liveRecords = 0;
+    private long deadRecords = 0;
+
+    /**
+     * Creates the storage.
+     * @param file File the queue is stored in.
+     */
+    public QueueStorage(@NotNull final File file) {
+        this.file = file;
+    }
+
+    /**
+     * Opens the queue file and rebuilds the in-memory offset index.
+     * @return Number of pending actions for each target.
+     * @throws IOException If the file could not be read.
+     */
+    @NotNull
+    public Map<UUID, Integer> open() throws IOException {
+        // Make sure the folder the queue is stored in exists.
+        final File parent = file.getParentFile();
+        if(parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Could not create " + parent);
+        }
+
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        index.clear();
+        liveRecords = 0;
+        deadRecords = 0;
+
+        // Replay every record in the file.
+        long position = 0;
+        final long size = channel.size();
+        while(position + HEADER_SIZE <= size) {
+            final int length = readLength(position);
+
+            // Stop at a partially written record, which happens if the server crashed mid-write.
+            if(length <= 0 || position + HEADER_SIZE + length > size) {
+                break;
+            }
+
+            final DataInputStream input = readRecord(position, length);
+            final byte type = input.readByte();
+            final UUID target = new UUID(input.readLong(), input.readLong());
+
+            if(type == ENTRY) {
+                index.computeIfAbsent(target, key -> new ArrayList<>()).add(position);
+                liveRecords++;
+            }
+            else {
+                dropOldest(target, input.readInt());
+                deadRecords++;
+            }
+
+            position += HEADER_SIZE + length;
+        }
+
+        // Cut off any trailing garbage so new records are appended cleanly.
+        if(position < size) {
+            channel.truncate(position);
+        }
+
+        final Map<UUID, Integer> counts = new HashMap<>();
+        index.forEach((target, offsets) -> counts.put(target, offsets.size()));
+        return counts;
+    }
+
+    /**
+     * Appends an action to the end of the queue.
+     * @param queuedAction Action to store.
+     * @throws IOException If the record could not be written.
+     */
+    public void append(@NotNull final QueuedAction queuedAction) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream output = new DataOutputStream(bytes);
+        output.writeByte(ENTRY);
+        output.writeLong(queuedAction.getTargetUUID().getMostSignificantBits());
+        output.writeLong(queuedAction.getTargetUUID().getLeastSignificantBits());
+        output.writeLong(queuedAction.getTimestamp());
+        output.writeUTF(queuedAction.getActionName());
+        output.writeUTF(queuedAction.getSenderName());
+
+        final long position = write(bytes.toByteArray());
+        index.computeIfAbsent(queuedAction.getTargetUUID(), key -> new ArrayList<>()).add(position);
+        liveRecords++;
+    }
+
+    /**
+     * Reads all pending actions for a target, oldest first.
+     * @param target UUID of the target.
+     * @return Pending actions.
+     * @throws IOException If the records could not be read.
+     */
+    @NotNull
+    public List<QueuedAction> read(@NotNull final UUID target) throws IOException {
+        final List<Long> offsets = index.get(target);
+
+        // Skip reading if there is nothing pending.
+        if(offsets == null) {
+            return Collections.emptyList();
+        }
+
+        final List<QueuedAction> queuedActions = new ArrayList<>(offsets.size());
+        for(final long offset : offsets) {
+            final DataInputStream input = readRecord(offset, readLength(offset));
+
+            // Skip the type and target, which are already known.
+            input.skipBytes(1 + Long.BYTES * 2);
+
+            final long timestamp = input.readLong();
+            final String actionName = input.readUTF();
+            final String senderName = input.readUTF();
+            queuedActions.add(new QueuedAction(target, actionName, senderName, timestamp));
+        }
+
+        return queuedActions;
+    }
+
+    /**
+     * Marks the oldest pending actions of a target as delivered.
+     * @param target UUID of the target.
+     * @param count Number of actions that were delivered.
+     * @throws IOException If the record could not be written.
+     */
+    public void clear(@NotNull final UUID target, final int count) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream output = new DataOutputStream(bytes);
+        output.writeByte(CLEAR);
+        output.writeLong(target.getMostSignificantBits());
+        output.writeLong(target.getLeastSignificantBits());
+        output.writeInt(count);
+
+        write(bytes.toByteArray());
+        dropOldest(target, count);
+        deadRecords++;
+    }
+
+    /**
+     * Get if enough of the file is made up of delivered records that it is worth rewriting.
+     * @return Whether the file should be compacted.
+     */
+    public boolean needsCompaction() {
+        return deadRecords >= MIN_DEAD_RECORDS && deadRecords > liveRecords;
+    }
+
+    /**
+     * Rewrites the file so that it only contains pending actions.
+     * @throws IOException If the file could not be rewritten.
+     */
+    public void compact() throws IOException {
+        final File compactedFile = new File(file.getParentFile(), file.getName() + ".compact");
+        final Map<UUID, List<Long>> compactedIndex = new HashMap<>();
+
+        try {
+            writeCompacted(compactedFile, compactedIndex);
+        }
+        catch (IOException exception) {
+            // Leave the old file in use and don't leave a half written copy behind.
+            Files.deleteIfExists(compactedFile.toPath());
+            throw exception;
+        }
+
+        // Swap the compacted file in place of the old one.
+        // The channel is reopened either way, on the compacted file if the move worked or the untouched old one if it didn't.
+        boolean moved = false;
+        channel.close();
+        try {
+            Files.move(compactedFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            moved = true;
+        }
+        finally {
+            if(!moved) {
+                Files.deleteIfExists(compactedFile.toPath());
+            }
+
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+
+        index.clear();
+        index.putAll(compactedIndex);
+        deadRecords = 0;
+    }
+
+    /**
+     * Copies every pending record into a new file, keeping track of where each one ends up.
+     * @param compactedFile File to write the pending records to.
+     * @param compactedIndex Map to fill with the new offsets of each target's records.
+     * @throws IOException If the file could not be written.
+     */
+    private void writeCompacted(@NotNull final File compactedFile, @NotNull final Map<UUID, List<Long>> compactedIndex) throws IOException {
+        try(final FileChannel compactedChannel = FileChannel.open(compactedFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long position = 0;
+
+            // Copy every pending record over, keeping their order.
+            for(final Map.Entry<UUID, List<Long>> entry : index.entrySet()) {
+                final List<Long> offsets = new ArrayList<>(entry.getValue().size());
+
+                for(final long offset : entry.getValue()) {
+                    final long recordSize = HEADER_SIZE + readLength(offset);
+                    long transferred = 0;
+                    while(transferred < recordSize) {
+                        transferred += channel.transferTo(offset + transferred, recordSize - transferred, compactedChannel);
+                    }
+
+                    offsets.add(position);
+                    position += recordSize;
+                }
+
+                compactedIndex.put(entry.getKey(), offsets);
+            }
+
+            compactedChannel.force(true);
+        }
+    }
+
+    /**
+     * Flushes and closes the queue file.
+     * @throws IOException If the file could not be closed.
+     */
+    public void close() throws IOException {
+        if(channel != null && channel.isOpen()) {
+            channel.force(true);
+            channel.close();
+        }
+    }
+
+    /**
+     * Removes the oldest offsets stored for a target.
+     * @param target UUID of the target.
+     * @param count Number of offsets to remove.
+     */
+    private void dropOldest(@NotNull final UUID target, final int count) {
+        final List<Long> offsets = index.get(target);
+
+        if(offsets == null) {
+            return;
+        }
+
+        final int removed = Math.min(count, offsets.size());
+        offsets.subList(0, removed).clear();
+        liveRecords -= removed;
+        deadRecords += removed;
+
+        if(offsets.isEmpty()) {
+            index.remove(target);
+        }
+    }
+
+    /**
+     * Reads the length prefix of the record at a given position.
+     * @param position Position of the record.
+     * @return Length of the record, excluding the prefix.
+     * @throws IOException If the length could not be read.
+     */
+    private int readLength(final long position) throws IOException {
+        lengthBuffer.clear();
+        while(lengthBuffer.hasRemaining()) {
+            if(channel.read(lengthBuffer, position + lengthBuffer.position()) < 0) {
+                return -1;
+            }
+        }
+
+        return lengthBuffer.getInt(0);
+    }
+
+    /**
+     * Reads the body of the record at a given position.
+     * @param position Position of the record.
+     * @param length Length of the record body.
+     * @return Stream over the record body.
+     * @throws IOException If the record could not be read.
+     */
+    @NotNull
+    private DataInputStream readRecord(final long position, final int length) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(length);
+        while(buffer.hasRemaining()) {
+            if(channel.read(buffer, position + HEADER_SIZE + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of queue file at " + position);
+            }
+        }
+
+        return new DataInputStream(new ByteArrayInputStream(buffer.array()));
+    }
+
+    /**
+     * Writes a length-prefixed record to the end of the file.
+     * @param body Body of the record.
+     * @return Position the record was written at.
+     * @throws IOException If the record could not be written.
+     */
+    private long write(final byte[] body) throws IOException {
+        final long position = channel.size();
+        final ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + body.length);
+        buffer.putInt(body.length).put(body).flip();
+
+        while(buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+
+        return position;
+    }
+}
\ No newline at end of file
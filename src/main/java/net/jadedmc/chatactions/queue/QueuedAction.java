@@ -0,0 +1,88 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.queue;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+
+/**
+ * Represents an action that was used on an offline player, waiting to be delivered when they join.
+ */
+public class QueuedAction {
+    private final UUID targetUUID;
+    private final String actionName;
+    private final String senderName;
+    private final long timestamp;
+
+    /**
+     * Creates the queued action.
+     * @param targetUUID UUID of the player the action is waiting for.
+     * @param actionName Name of the action that was used.
+     * @param senderName Name of the player who used the action.
+     * @param timestamp Time (in milliseconds) the action was used.
+     */
+    public QueuedAction(@NotNull final UUID targetUUID, @NotNull final String actionName, @NotNull final String senderName, final long timestamp) {
+        this.targetUUID = targetUUID;
+        this.actionName = actionName;
+        this.senderName = senderName;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * Gets the name of the action that was used.
+     * @return Action name.
+     */
+    @NotNull
+    public String getActionName() {
+        return this.actionName;
+    }
+
+    /**
+     * Gets the name of the player who used the action.
+     * @return Sender name.
+     */
+    @NotNull
+    public String getSenderName() {
+        return this.senderName;
+    }
+
+    /**
+     * Gets the UUID of the player the action is waiting for.
+     * @return Target UUID.
+     */
+    @NotNull
+    public UUID getTargetUUID() {
+        return this.targetUUID;
+    }
+
+    /**
+     * Gets when the action was used.
+     * @return Time the action was used, in milliseconds.
+     */
+    public long getTimestamp() {
+        return this.timestamp;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,180 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.reciprocal;
+
+import net.jadedmc.chatactions.ChatActionsPlugin;
+import net.jadedmc.chatactions.actions.Action;
+import net.jadedmc.chatactions.utils.TimingWheel;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps track of reciprocal actions waiting for a reply, like a high five that needs to be returned.
+ * Requests expire through the plugin's shared timing wheel instead of a scheduler task each,
+ * and are removed when either player leaves so spam can't build up in memory.
+ */
+public class ReciprocalManager {
+    private final ChatActionsPlugin plugin;
+    private final Map<Request, TimingWheel.Timeout> pending = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<Request>> participants = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the Reciprocal Manager.
+     * @param plugin Instance of the plugin.
+     */
+    public ReciprocalManager(@NotNull final ChatActionsPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Removes every request a player is part of.
+     * Called when the player leaves the server.
+     * @param player Player to remove requests for.
+     */
+    public void cancel(@NotNull final Player player) {
+        final Set<Request> requests = this.participants.remove(player.getUniqueId());
+
+        if(requests == null) {
+            return;
+        }
+
+        for(final Request request : requests) {
+            remove(request);
+        }
+    }
+
+    /**
+     * Completes a reciprocal action if the target sent the same action to the sender first.
+     * @param action Action being used.
+     * @param sender Player replying to the request.
+     * @param target Player who sent the original request.
+     * @return true if a request was waiting and has been completed, false otherwise.
+     */
+    public boolean complete(@NotNull final Action action, @NotNull final Player sender, @NotNull final Player target) {
+        return remove(new Request(action.getName(), target.getUniqueId(), sender.getUniqueId()));
+    }
+
+    /**
+     * Gets the number of requests waiting for a reply.
+     * @return Number of pending requests.
+     */
+    public int getPending() {
+        return this.pending.size();
+    }
+
+    /**
+     * Starts waiting for the target to send the action back.
+     * Replaces any earlier request of the same action between the two players.
+     * @param action Action that was used.
+     * @param sender Player who used the action.
+     * @param target Player the action was used on.
+     */
+    public void request(@NotNull final Action action, @NotNull final Player sender, @NotNull final Player target) {
+        final Request request = new Request(action.getName(), sender.getUniqueId(), target.getUniqueId());
+        final TimingWheel.Timeout timeout = plugin.getTimingWheel().schedule(() -> remove(request), action.getReciprocalTimeout() * 20L);
+
+        final TimingWheel.Timeout previous = this.pending.put(request, timeout);
+        if(previous != null) {
+            previous.cancel();
+        }
+
+        this.participants.computeIfAbsent(request.senderUUID, key -> ConcurrentHashMap.newKeySet()).add(request);
+        this.participants.computeIfAbsent(request.targetUUID, key -> ConcurrentHashMap.newKeySet()).add(request);
+    }
+
+    /**
+     * Removes a request from the pending map and from both of its players.
+     * @param request Request to remove.
+     * @return true if the request was still pending, false otherwise.
+     */
+    private boolean remove(@NotNull final Request request) {
+        final TimingWheel.Timeout timeout = this.pending.remove(request);
+
+        if(timeout == null) {
+            return false;
+        }
+
+        timeout.cancel();
+        removeParticipant(request.senderUUID, request);
+        removeParticipant(request.targetUUID, request);
+        return true;
+    }
+
+    /**
+     * Removes a request from one of its players.
+     * @param playerUUID UUID of the player.
+     * @param request Request to remove.
+     */
+    private void removeParticipant(@NotNull final UUID playerUUID, @NotNull final Request request) {
+        this.participants.computeIfPresent(playerUUID, (key, requests) -> {
+            requests.remove(request);
+            return requests.isEmpty() ? null : requests;
+        });
+    }
+
+    /**
+     * Identifies a request by the action used and the two players involved.
+     */
+    private static class Request {
+        private final String actionName;
+        private final UUID senderUUID;
+        private final UUID targetUUID;
+
+        /**
+         * Creates the request.
+         * @param actionName Name of the action that was used.
+         * @param senderUUID UUID of the player who used the action.
+         * @param targetUUID UUID of the player the action was used on.
+         */
+        private Request(@NotNull final String actionName, @NotNull final UUID senderUUID, @NotNull final UUID targetUUID) {
+            this.actionName = actionName;
+            this.senderUUID = senderUUID;
+            this.targetUUID = targetUUID;
+        }
+
+        @Override
+        public boolean equals(final Object object) {
+            if(this == object) {
+                return true;
+            }
+
+            if(!(object instanceof Request request)) {
+                return false;
+            }
+
+            return this.actionName.equals(request.actionName) && this.senderUUID.equals(request.senderUUID) && this.targetUUID.equals(request.targetUUID);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * this.actionName.hashCode() + this.senderUUID.hashCode()) + this.targetUUID.hashCode();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,222 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.sequences;
+
+import net.jadedmc.chatactions.ChatActionsPlugin;
+import net.jadedmc.chatactions.actions.Action;
+import net.jadedmc.chatactions.utils.ChatUtils;
+import net.jadedmc.chatactions.utils.TimingWheel;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Runs the delayed steps of action sequences.
+ * Every step is scheduled on the plugin's shared timing wheel, so any number of running sequences
+ * only costs a single scheduler task.
+ */
+public class SequenceManager {
+    private final ChatActionsPlugin plugin;
+    private final Map<UUID, List<Sequence>> participants = new HashMap<>();
+
+    /**
+     * Creates the Sequence Manager.
+     * @param plugin Instance of the plugin.
+     */
+    public SequenceManager(@NotNull final ChatActionsPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Cancels every running sequence a player is part of.
+     * Called when the player leaves the server.
+     * @param player Player to cancel sequences for.
+     */
+    public void cancel(@NotNull final Player player) {
+        final List<Sequence> sequences = this.participants.remove(player.getUniqueId());
+
+        if(sequences == null) {
+            return;
+        }
+
+        for(final Sequence sequence : sequences) {
+            sequence.cancel();
+
+            // Remove the sequence from the other participants as well.
+            removeParticipants(sequence);
+        }
+    }
+
+    /**
+     * Starts an action's sequence.
+     * @param action Action that was used.
+     * @param sender Player who used the action.
+     * @param targets Players the action was used on, empty if there was no specific target.
+     */
+    public void start(@NotNull final Action action, @NotNull final Player sender, @NotNull final Collection<Player> targets) {
+        // Skip actions that don't have a sequence.
+        if(action.getSequence().isEmpty()) {
+            return;
+        }
+
+        final Sequence sequence = new Sequence(sender, targets, action.getSequence().size());
+        for(final SequenceStep step : action.getSequence()) {
+            sequence.timeouts.add(plugin.getTimingWheel().schedule(() -> runStep(sequence, step), step.getDelay()));
+        }
+
+        this.participants.computeIfAbsent(sender.getUniqueId(), key -> new ArrayList<>()).add(sequence);
+        for(final Player target : targets) {
+            this.participants.computeIfAbsent(target.getUniqueId(), key -> new ArrayList<>()).add(sequence);
+        }
+    }
+
+    /**
+     * Removes a sequence from a participant.
+     * @param player Participant of the sequence.
+     * @param sequence Sequence to remove.
+     */
+    private void removeParticipant(@NotNull final Player player, @NotNull final Sequence sequence) {
+        final List<Sequence> sequences = this.participants.get(player.getUniqueId());
+
+        if(sequences == null) {
+            return;
+        }
+
+        sequences.remove(sequence);
+        if(sequences.isEmpty()) {
+            this.participants.remove(player.getUniqueId());
+        }
+    }
+
+    /**
+     * Removes a sequence from all of its participants.
+     * @param sequence Sequence to remove.
+     */
+    private void removeParticipants(@NotNull final Sequence sequence) {
+        removeParticipant(sequence.sender, sequence);
+        for(final Player target : sequence.targets) {
+            removeParticipant(target, sequence);
+        }
+    }
+
+    /**
+     * Runs a step of a sequence.
+     * @param sequence Sequence the step is part of.
+     * @param step Step to run.
+     */
+    private void runStep(@NotNull final Sequence sequence, @NotNull final SequenceStep step) {
+        final String senderName = sequence.sender.getName();
+        final String targetName = sequence.targetNames;
+
+        final List<Player> recipients = getRecipients(sequence, step.getRecipient());
+
+        // Messages are the same for every recipient, so their background placeholders are resolved together.
+        if(step.getType() == SequenceStep.Type.MESSAGE) {
+            ChatUtils.broadcast(recipients, step.getText(senderName, targetName));
+        }
+        else {
+            for(final Player player : recipients) {
+                switch (step.getType()) {
+                    case TITLE -> ChatUtils.title(player, step.getText(senderName, targetName), step.getSubtitle(senderName, targetName));
+                    case ACTION_BAR -> ChatUtils.actionBar(player, step.getText(senderName, targetName));
+                    case SOUND -> ChatUtils.playSound(player, step.getSound());
+                }
+            }
+        }
+
+        // Forget the sequence once every step has run.
+        sequence.remaining--;
+        if(sequence.remaining == 0) {
+            removeParticipants(sequence);
+        }
+    }
+
+    /**
+     * Gets the players a step should be shown to.
+     * @param sequence Sequence the step is part of.
+     * @param recipient Who the step is for.
+     * @return Players to show the step to.
+     */
+    @NotNull
+    private List<Player> getRecipients(@NotNull final Sequence sequence, @NotNull final SequenceStep.Recipient recipient) {
+        final List<Player> recipients = new ArrayList<>();
+
+        switch (recipient) {
+            case SENDER -> recipients.add(sequence.sender);
+            case TARGET -> recipients.addAll(sequence.targets);
+            case GLOBAL -> {
+                // Skip the players who are part of the action.
+                for(final Player viewer : plugin.getServer().getOnlinePlayers()) {
+                    if(!viewer.equals(sequence.sender) && !sequence.targets.contains(viewer)) {
+                        recipients.add(viewer);
+                    }
+                }
+            }
+            case ALL -> recipients.addAll(plugin.getServer().getOnlinePlayers());
+        }
+
+        return recipients;
+    }
+
+    /**
+     * Represents a single use of an action's sequence.
+     */
+    private static class Sequence {
+        private final Player sender;
+        private final Collection<Player> targets;
+        private final String targetNames;
+        private final List<TimingWheel.Timeout> timeouts;
+        private int remaining;
+
+        /**
+         * Creates the sequence.
+         * @param sender Player who used the action.
+         * @param targets Players the action was used on, empty if there was no specific target.
+         * @param steps Number of steps in the sequence.
+         */
+        private Sequence(@NotNull final Player sender, @NotNull final Collection<Player> targets, final int steps) {
+            this.sender = sender;
+            this.targets = targets;
+            this.targetNames = ChatUtils.formatNames(targets);
+            this.timeouts = new ArrayList<>(steps);
+            this.remaining = steps;
+        }
+
+        /**
+         * Stops any steps that have not run yet.
+         */
+        private void cancel() {
+            for(final TimingWheel.Timeout timeout : this.timeouts) {
+                timeout.cancel();
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,188 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.sequences;
+
+import net.kyori.adventure.key.InvalidKeyException;
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.sound.Sound;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Represents a single step in an action's sequence, run some time after the action is used.
+ */
+public class SequenceStep {
+    private final long delay;
+    private final Type type;
+    private final Recipient recipient;
+    private final String text;
+    private final String subtitle;
+    private final Sound sound;
+
+    /**
+     * Creates a sequence step from its configuration.
+     * @param config Map of the step's configured values.
+     * @throws IllegalArgumentException If the step is misconfigured.
+     */
+    public SequenceStep(@NotNull final Map<?, ?> config) {
+        this.delay = Math.max(1, getLong(config, "delay", 20));
+        this.type = Type.valueOf(getString(config, "type", "message").toUpperCase(Locale.ROOT).replace('-', '_'));
+        this.recipient = Recipient.valueOf(getString(config, "recipient", "target").toUpperCase(Locale.ROOT));
+        this.text = getString(config, "text", "");
+        this.subtitle = getString(config, "subtitle", "");
+
+        // Sounds are only looked up once, when the step is loaded.
+        if(this.type == Type.SOUND) {
+            final float volume = (float) getDouble(config, "volume", 1);
+            final float pitch = (float) getDouble(config, "pitch", 1);
+            final String soundName = getString(config, "sound", "entity.experience_orb.pickup");
+
+            try {
+                this.sound = Sound.sound(Key.key(soundName), Sound.Source.PLAYER, volume, pitch);
+            }
+            catch (InvalidKeyException exception) {
+                throw new IllegalArgumentException("Invalid sound " + soundName, exception);
+            }
+        }
+        else {
+            this.sound = null;
+        }
+    }
+
+    /**
+     * Gets how long after the action is used the step runs.
+     * @return Delay in ticks.
+     */
+    public long getDelay() {
+        return this.delay;
+    }
+
+    /**
+     * Gets who the step is shown to.
+     * @return Step recipient.
+     */
+    @NotNull
+    public Recipient getRecipient() {
+        return this.recipient;
+    }
+
+    /**
+     * Gets the sound the step plays.
+     * @return Step sound, null if the step is not a sound.
+     */
+    public Sound getSound() {
+        return this.sound;
+    }
+
+    /**
+     * Gets the text of the step, with placeholders parsed.
+     * @param senderName Name of the sender of the action.
+     * @param targetName Name of the target of the action.
+     * @return Step text.
+     */
+    @NotNull
+    public String getText(@NotNull final String senderName, @NotNull final String targetName) {
+        return this.text.replace("%sender%", senderName).replace("%target%", targetName);
+    }
+
+    /**
+     * Gets the subtitle of the step, with placeholders parsed.
+     * @param senderName Name of the sender of the action.
+     * @param targetName Name of the target of the action.
+     * @return Step subtitle.
+     */
+    @NotNull
+    public String getSubtitle(@NotNull final String senderName, @NotNull final String targetName) {
+        return this.subtitle.replace("%sender%", senderName).replace("%target%", targetName);
+    }
+
+    /**
+     * Gets what the step does.
+     * @return Step type.
+     */
+    @NotNull
+    public Type getType() {
+        return this.type;
+    }
+
+    /**
+     * Reads a number from a step's configuration.
+     * @param config Step configuration.
+     * @param key Key of the value.
+     * @param defaultValue Value to use if the key is not set.
+     * @return Configured value.
+     */
+    private static double getDouble(@NotNull final Map<?, ?> config, @NotNull final String key, final double defaultValue) {
+        final Object value = config.get(key);
+        return value instanceof Number number ? number.doubleValue() : defaultValue;
+    }
+
+    /**
+     * Reads a whole number from a step's configuration.
+     * @param config Step configuration.
+     * @param key Key of the value.
+     * @param defaultValue Value to use if the key is not set.
+     * @return Configured value.
+     */
+    private static long getLong(@NotNull final Map<?, ?> config, @NotNull final String key, final long defaultValue) {
+        final Object value = config.get(key);
+        return value instanceof Number number ? number.longValue() : defaultValue;
+    }
+
+    /**
+     * Reads a string from a step's configuration.
+     * @param config Step configuration.
+     * @param key Key of the value.
+     * @param defaultValue Value to use if the key is not set.
+     * @return Configured value.
+     */
+    @NotNull
+    private static String getString(@NotNull final Map<?, ?> config, @NotNull final String key, @NotNull final String defaultValue) {
+        final Object value = config.get(key);
+        return value == null ? defaultValue : value.toString();
+    }
+
+    /**
+     * The different things a step can do.
+     */
+    public enum Type {
+        MESSAGE,
+        TITLE,
+        ACTION_BAR,
+        SOUND
+    }
+
+    /**
+     * The different players a step can be shown to.
+     */
+    public enum Recipient {
+        SENDER,
+        TARGET,
+        GLOBAL,
+        ALL
+    }
+}
\ No newline at end of file
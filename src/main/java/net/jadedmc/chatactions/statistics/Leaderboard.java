@@ -0,0 +1,187 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.statistics;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Keeps track of the players with the highest count for a single statistic.
+ * Only the top entries are stored, and each update costs O(log size).
+ * Relies on counts only ever going up, which lets a player outside the leaderboard be ignored
+ * unless they pass the lowest entry.
+ */
+public class Leaderboard {
+    private static final Comparator<Entry> ORDER = Comparator.comparingLong(Entry::getValue).reversed().thenComparing(Entry::getPlayerUUID);
+
+    private final int size;
+    private final TreeSet<Entry> entries = new TreeSet<>(ORDER);
+    private final Map<UUID, Entry> members = new HashMap<>();
+    private Entry[] ranked = null;
+
+    /**
+     * Creates the leaderboard.
+     * @param size Maximum number of entries to keep.
+     */
+    public Leaderboard(final int size) {
+        this.size = size;
+    }
+
+    /**
+     * Gets the entry at a given rank.
+     * @param rank Rank of the entry, starting at 1.
+     * @return Entry at that rank, null if there isn't one.
+     */
+    @Nullable
+    public synchronized Entry getEntry(final int rank) {
+        // Caches the ranked entries so repeated lookups (like holograms) don't walk the tree.
+        if(this.ranked == null) {
+            this.ranked = this.entries.toArray(new Entry[0]);
+        }
+
+        if(rank < 1 || rank > this.ranked.length) {
+            return null;
+        }
+
+        return this.ranked[rank - 1];
+    }
+
+    /**
+     * Gets all entries, from highest to lowest.
+     * @return Leaderboard entries.
+     */
+    @NotNull
+    public synchronized Entry[] getEntries() {
+        return this.entries.toArray(new Entry[0]);
+    }
+
+    /**
+     * Updates a player's count on the leaderboard.
+     * @param playerUUID UUID of the player.
+     * @param playerName Name of the player.
+     * @param value New count of the player.
+     */
+    public synchronized void update(@NotNull final UUID playerUUID, @NotNull final String playerName, final long value) {
+        // Players who have never used the action don't belong on the leaderboard.
+        if(value <= 0) {
+            return;
+        }
+
+        final Entry existing = this.members.get(playerUUID);
+
+        // Move the player if they are already on the leaderboard.
+        if(existing != null) {
+            // Ignore stale counts, which can come from saved statistics being read after newer ones.
+            if(existing.getValue() >= value) {
+                return;
+            }
+
+            this.entries.remove(existing);
+            add(new Entry(playerUUID, playerName, value));
+            return;
+        }
+
+        // Fill the leaderboard until it reaches its size.
+        if(this.entries.size() < this.size) {
+            add(new Entry(playerUUID, playerName, value));
+            return;
+        }
+
+        // Otherwise the player has to beat the lowest entry to get on.
+        final Entry lowest = this.entries.last();
+        if(value <= lowest.getValue()) {
+            return;
+        }
+
+        this.entries.pollLast();
+        this.members.remove(lowest.getPlayerUUID());
+        add(new Entry(playerUUID, playerName, value));
+    }
+
+    /**
+     * Adds an entry to the leaderboard.
+     * @param entry Entry to add.
+     */
+    private void add(@NotNull final Entry entry) {
+        this.entries.add(entry);
+        this.members.put(entry.getPlayerUUID(), entry);
+
+        // Forces the ranked entries to be rebuilt on the next lookup.
+        this.ranked = null;
+    }
+
+    /**
+     * Represents a single player's position on a leaderboard.
+     */
+    public static class Entry {
+        private final UUID playerUUID;
+        private final String playerName;
+        private final long value;
+
+        /**
+         * Creates the entry.
+         * @param playerUUID UUID of the player.
+         * @param playerName Name of the player.
+         * @param value Count of the player.
+         */
+        public Entry(@NotNull final UUID playerUUID, @NotNull final String playerName, final long value) {
+            this.playerUUID = playerUUID;
+            this.playerName = playerName;
+            this.value = value;
+        }
+
+        /**
+         * Gets the name of the player.
+         * @return Player name.
+         */
+        @NotNull
+        public String getPlayerName() {
+            return this.playerName;
+        }
+
+        /**
+         * Gets the UUID of the player.
+         * @return Player UUID.
+         */
+        @NotNull
+        public UUID getPlayerUUID() {
+            return this.playerUUID;
+        }
+
+        /**
+         * Gets the count of the player.
+         * @return Player's count.
+         */
+        public long getValue() {
+            return this.value;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,214 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.statistics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps track of how many times a player has sent and received each action.
+ * Counters can be updated from any thread.
+ */
+public class PlayerStatistics {
+    private static final int FORMAT_VERSION = 1;
+
+    private final UUID playerUUID;
+    private final Map<String, LongAdder> sent = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> received = new ConcurrentHashMap<>();
+    private volatile String playerName;
+    private volatile boolean loaded = false;
+
+    /**
+     * Creates empty statistics for a player.
+     * @param playerUUID UUID of the player.
+     * @param playerName Name of the player.
+     */
+    public PlayerStatistics(@NotNull final UUID playerUUID, @NotNull final String playerName) {
+        this.playerUUID = playerUUID;
+        this.playerName = playerName;
+    }
+
+    /**
+     * Adds one to the number of times the player has sent an action.
+     * @param actionName Name of the action.
+     * @return New number of times the action was sent.
+     */
+    public long addSent(@NotNull final String actionName) {
+        final LongAdder counter = this.sent.computeIfAbsent(actionName, key -> new LongAdder());
+        counter.increment();
+        return counter.sum();
+    }
+
+    /**
+     * Adds one to the number of times the player has received an action.
+     * @param actionName Name of the action.
+     * @return New number of times the action was received.
+     */
+    public long addReceived(@NotNull final String actionName) {
+        final LongAdder counter = this.received.computeIfAbsent(actionName, key -> new LongAdder());
+        counter.increment();
+        return counter.sum();
+    }
+
+    /**
+     * Gets the names of every action the player has sent or received.
+     * @return Action names.
+     */
+    @NotNull
+    public Set<String> getActionNames() {
+        final Set<String> actionNames = new HashSet<>(this.sent.keySet());
+        actionNames.addAll(this.received.keySet());
+        return actionNames;
+    }
+
+    /**
+     * Gets the name of the player.
+     * @return Player name.
+     */
+    @NotNull
+    public String getPlayerName() {
+        return this.playerName;
+    }
+
+    /**
+     * Gets the UUID of the player.
+     * @return Player UUID.
+     */
+    @NotNull
+    public UUID getPlayerUUID() {
+        return this.playerUUID;
+    }
+
+    /**
+     * Gets the number of times the player has received an action.
+     * @param actionName Name of the action.
+     * @return Times received.
+     */
+    public long getReceived(@NotNull final String actionName) {
+        final LongAdder counter = this.received.get(actionName);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    /**
+     * Gets the number of times the player has sent an action.
+     * @param actionName Name of the action.
+     * @return Times sent.
+     */
+    public long getSent(@NotNull final String actionName) {
+        final LongAdder counter = this.sent.get(actionName);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    /**
+     * Get if the saved statistics have been read from disk.
+     * Statistics should not be saved until this is true, or the saved counts would be lost.
+     * @return Whether the statistics have been loaded.
+     */
+    public boolean isLoaded() {
+        return this.loaded;
+    }
+
+    /**
+     * Adds saved statistics on top of the current counts.
+     * Anything counted before the file finished loading is kept.
+     * Nothing is added unless the whole file could be read.
+     * @param input Stream to read the statistics from.
+     * @throws IOException If the statistics could not be read.
+     */
+    public void read(@NotNull final DataInputStream input) throws IOException {
+        final int version = input.readInt();
+        if(version != FORMAT_VERSION) {
+            throw new IOException("Unknown statistics format " + version + " for " + this.playerUUID);
+        }
+
+        final String savedName = input.readUTF();
+        final int actions = input.readInt();
+        if(actions < 0) {
+            throw new IOException("Invalid action count " + actions + " for " + this.playerUUID);
+        }
+
+        // Read everything first, so a truncated file doesn't leave half of its counts behind.
+        final String[] actionNames = new String[actions];
+        final long[] savedSent = new long[actions];
+        final long[] savedReceived = new long[actions];
+        for(int i = 0; i < actions; i++) {
+            actionNames[i] = input.readUTF();
+            savedSent[i] = input.readLong();
+            savedReceived[i] = input.readLong();
+        }
+
+        // Keep the newest name if the player has already joined.
+        if(this.playerName.isEmpty()) {
+            this.playerName = savedName;
+        }
+
+        for(int i = 0; i < actions; i++) {
+            this.sent.computeIfAbsent(actionNames[i], key -> new LongAdder()).add(savedSent[i]);
+            this.received.computeIfAbsent(actionNames[i], key -> new LongAdder()).add(savedReceived[i]);
+        }
+    }
+
+    /**
+     * Marks the statistics as loaded, allowing them to be saved.
+     */
+    public void setLoaded() {
+        this.loaded = true;
+    }
+
+    /**
+     * Updates the stored name of the player.
+     * @param playerName New name of the player.
+     */
+    public void setPlayerName(@NotNull final String playerName) {
+        this.playerName = playerName;
+    }
+
+    /**
+     * Writes the statistics to a stream.
+     * @param output Stream to write the statistics to.
+     * @throws IOException If the statistics could not be written.
+     */
+    public void write(@NotNull final DataOutputStream output) throws IOException {
+        final Set<String> actionNames = getActionNames();
+
+        output.writeInt(FORMAT_VERSION);
+        output.writeUTF(this.playerName);
+        output.writeInt(actionNames.size());
+        for(final String actionName : actionNames) {
+            output.writeUTF(actionName);
+            output.writeLong(getSent(actionName));
+            output.writeLong(getReceived(actionName));
+        }
+    }
+}
\ No newline at end of file
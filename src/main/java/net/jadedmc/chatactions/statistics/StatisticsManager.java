@@ -0,0 +1,422 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.statistics;
+
+import net.jadedmc.chatactions.ChatActionsPlugin;
+import net.jadedmc.chatactions.actions.Action;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Manages how many times players have sent and received each action.
+ * Counters are updated in memory and written to disk in batches on a background thread.
+ */
+public class StatisticsManager {
+    private final ChatActionsPlugin plugin;
+    private final Map<UUID, PlayerStatistics> statistics = new ConcurrentHashMap<>();
+    private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> unloading = ConcurrentHashMap.newKeySet();
+    private final Map<String, Leaderboard> sentLeaderboards = new ConcurrentHashMap<>();
+    private final Map<String, Leaderboard> receivedLeaderboards = new ConcurrentHashMap<>();
+    private final File folder;
+    private final boolean enabled;
+    private final int leaderboardSize;
+    private ScheduledExecutorService executor;
+
+    /**
+     * Creates the Statistics Manager.
+     * @param plugin Instance of the plugin.
+     */
+    public StatisticsManager(@NotNull final ChatActionsPlugin plugin) {
+        this.plugin = plugin;
+        this.folder = new File(plugin.getDataFolder(), "statistics");
+
+        final ConfigurationSection config = plugin.getConfigManager().getConfig().getConfigurationSection("statistics");
+        this.enabled = config == null || config.getBoolean("enabled", true);
+        this.leaderboardSize = Math.max(1, config == null ? 10 : config.getInt("leaderboard-size", 10));
+
+        // Don't start the writer if statistics are disabled.
+        if(!this.enabled) {
+            return;
+        }
+
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "ChatActions Statistics");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Periodically saves changed statistics.
+        final long flushInterval = Math.max(1, config == null ? 60 : config.getLong("flush-interval", 60));
+        this.executor.scheduleWithFixedDelay(this::flush, flushInterval, flushInterval, TimeUnit.SECONDS);
+
+        // Rebuild the leaderboards from the saved statistics in the background.
+        this.executor.execute(this::loadLeaderboards);
+
+        // Load the statistics of players who are already online, in case of a reload.
+        for(final Player player : plugin.getServer().getOnlinePlayers()) {
+            load(player);
+        }
+    }
+
+    /**
+     * Gets the leaderboard of players who have received an action the most.
+     * @param actionName Name of the action.
+     * @return Receiver leaderboard, null if nobody has received the action yet.
+     */
+    @Nullable
+    public Leaderboard getReceivedLeaderboard(@NotNull final String actionName) {
+        return this.receivedLeaderboards.get(actionName);
+    }
+
+    /**
+     * Gets the leaderboard of players who have sent an action the most.
+     * @param actionName Name of the action.
+     * @return Sender leaderboard, null if nobody has sent the action yet.
+     */
+    @Nullable
+    public Leaderboard getSentLeaderboard(@NotNull final String actionName) {
+        return this.sentLeaderboards.get(actionName);
+    }
+
+    /**
+     * Gets the statistics of a player.
+     * Only players who are online, or have recently left, are kept in memory.
+     * @param playerUUID UUID of the player.
+     * @return The player's statistics, null if they are not loaded.
+     */
+    @Nullable
+    public PlayerStatistics getStatistics(@NotNull final UUID playerUUID) {
+        return this.statistics.get(playerUUID);
+    }
+
+    /**
+     * Get if statistics are being tracked.
+     * @return Whether statistics are enabled.
+     */
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Loads the statistics of a player.
+     * Called when the player joins the server.
+     * @param player Player to load statistics for.
+     */
+    public void load(@NotNull final Player player) {
+        if(!this.enabled) {
+            return;
+        }
+
+        this.unloading.remove(player.getUniqueId());
+
+        // Update the player's name if their statistics are still in memory.
+        final PlayerStatistics existing = this.statistics.get(player.getUniqueId());
+        if(existing != null) {
+            existing.setPlayerName(player.getName());
+            return;
+        }
+
+        // Start with empty counters, and add the saved counts to them once they are read.
+        final PlayerStatistics playerStatistics = new PlayerStatistics(player.getUniqueId(), player.getName());
+        this.statistics.put(player.getUniqueId(), playerStatistics);
+        this.executor.execute(() -> read(playerStatistics));
+    }
+
+    /**
+     * Records a player using an action.
+     * @param action Action that was used.
+     * @param sender Player who used the action.
+     * @param target Player the action was used on, null if there was no specific target.
+     */
+    public void recordUse(@NotNull final Action action, @NotNull final Player sender, @Nullable final Player target) {
+        if(!this.enabled) {
+            return;
+        }
+
+        final long sent = getOrLoad(sender).addSent(action.getName());
+        updateLeaderboard(this.sentLeaderboards, action.getName()).update(sender.getUniqueId(), sender.getName(), sent);
+        this.dirty.add(sender.getUniqueId());
+
+        if(target != null) {
+            recordReceived(action, target);
+        }
+    }
+
+    /**
+     * Records a player receiving an action, like one that was queued while they were offline.
+     * @param action Action that was received.
+     * @param target Player the action was used on.
+     */
+    public void recordReceived(@NotNull final Action action, @NotNull final Player target) {
+        if(!this.enabled) {
+            return;
+        }
+
+        final long received = getOrLoad(target).addReceived(action.getName());
+        updateLeaderboard(this.receivedLeaderboards, action.getName()).update(target.getUniqueId(), target.getName(), received);
+        this.dirty.add(target.getUniqueId());
+    }
+
+    /**
+     * Saves all statistics, waiting for them to finish writing.
+     * Called when the plugin is disabled.
+     */
+    public void shutdown() {
+        if(this.executor == null) {
+            return;
+        }
+
+        this.executor.execute(this::flush);
+        this.executor.shutdown();
+
+        try {
+            if(!this.executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Timed out while saving statistics.");
+            }
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Removes a player's statistics from memory once they have been saved.
+     * Called when the player leaves the server.
+     * @param player Player to unload.
+     */
+    public void unload(@NotNull final Player player) {
+        if(this.enabled) {
+            this.unloading.add(player.getUniqueId());
+        }
+    }
+
+    /**
+     * Writes every changed player's statistics to disk, then unloads players who have left.
+     * Runs on the statistics thread.
+     */
+    private void flush() {
+        for(final UUID playerUUID : new ArrayList<>(this.dirty)) {
+            final PlayerStatistics playerStatistics = this.statistics.get(playerUUID);
+
+            // Wait until the saved statistics are read, so they aren't overwritten.
+            if(playerStatistics == null || !playerStatistics.isLoaded()) {
+                continue;
+            }
+
+            this.dirty.remove(playerUUID);
+            write(playerStatistics);
+        }
+
+        // Remove players who have left and have nothing left to save.
+        for(final UUID playerUUID : new ArrayList<>(this.unloading)) {
+            if(!this.dirty.contains(playerUUID)) {
+                this.unloading.remove(playerUUID);
+                this.statistics.remove(playerUUID);
+            }
+        }
+    }
+
+    /**
+     * Gets the statistics of an online player, loading them if needed.
+     * @param player Player to get statistics for.
+     * @return The player's statistics.
+     */
+    @NotNull
+    private PlayerStatistics getOrLoad(@NotNull final Player player) {
+        final PlayerStatistics playerStatistics = this.statistics.get(player.getUniqueId());
+
+        if(playerStatistics != null) {
+            return playerStatistics;
+        }
+
+        load(player);
+        return this.statistics.get(player.getUniqueId());
+    }
+
+    /**
+     * Gets the file a player's statistics are saved in.
+     * @param playerUUID UUID of the player.
+     * @return Statistics file.
+     */
+    @NotNull
+    private File getFile(@NotNull final UUID playerUUID) {
+        return new File(this.folder, playerUUID + ".dat");
+    }
+
+    /**
+     * Reads every saved statistics file and adds each player to the leaderboards.
+     * Runs on the statistics thread, once at startup.
+     */
+    private void loadLeaderboards() {
+        final File[] files = this.folder.listFiles((directory, name) -> name.endsWith(".dat"));
+
+        // Skip if nothing has been saved yet.
+        if(files == null) {
+            return;
+        }
+
+        for(final File file : files) {
+            final UUID playerUUID;
+            try {
+                playerUUID = UUID.fromString(file.getName().substring(0, file.getName().length() - 4));
+            }
+            catch (IllegalArgumentException exception) {
+                continue;
+            }
+
+            // Read the file into throwaway statistics, so offline players don't stay in memory.
+            final PlayerStatistics playerStatistics = new PlayerStatistics(playerUUID, "");
+            try(final DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+                playerStatistics.read(input);
+            }
+            catch (IOException exception) {
+                exception.printStackTrace();
+                continue;
+            }
+
+            updateLeaderboards(playerStatistics);
+        }
+    }
+
+    /**
+     * Reads a player's saved statistics from disk.
+     * Runs on the statistics thread.
+     * @param playerStatistics Statistics to add the saved counts to.
+     */
+    private void read(@NotNull final PlayerStatistics playerStatistics) {
+        final File file = getFile(playerStatistics.getPlayerUUID());
+
+        try {
+            if(file.exists()) {
+                try(final DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+                    playerStatistics.read(input);
+                }
+            }
+        }
+        catch (IOException exception) {
+            exception.printStackTrace();
+
+            // Keep the unreadable file, so saving the new counts doesn't overwrite what was in it.
+            if(!moveCorruptFile(file)) {
+                plugin.getLogger().warning("Could not move " + file.getName() + " aside, statistics for " + playerStatistics.getPlayerName() + " will not be saved.");
+                return;
+            }
+        }
+
+        playerStatistics.setLoaded();
+
+        // The combined counts may be enough to move the player up the leaderboards.
+        updateLeaderboards(playerStatistics);
+    }
+
+    /**
+     * Moves a statistics file that could not be read out of the way.
+     * @param file File that could not be read.
+     * @return Whether the file was moved.
+     */
+    private boolean moveCorruptFile(@NotNull final File file) {
+        final File corruptFile = new File(this.folder, file.getName() + ".corrupt");
+
+        try {
+            Files.move(file.toPath(), corruptFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            plugin.getLogger().warning("Could not read " + file.getName() + ", it has been moved to " + corruptFile.getName() + ".");
+            return true;
+        }
+        catch (IOException exception) {
+            exception.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Gets a leaderboard to update, creating it if it doesn't exist yet.
+     * Only used when counts change, so looking up a leaderboard never creates one.
+     * @param leaderboards Sent or received leaderboards.
+     * @param actionName Name of the action.
+     * @return Leaderboard of the action.
+     */
+    @NotNull
+    private Leaderboard updateLeaderboard(@NotNull final Map<String, Leaderboard> leaderboards, @NotNull final String actionName) {
+        return leaderboards.computeIfAbsent(actionName, key -> new Leaderboard(this.leaderboardSize));
+    }
+
+    /**
+     * Adds all of a player's counts to the leaderboards.
+     * @param playerStatistics Statistics of the player.
+     */
+    private void updateLeaderboards(@NotNull final PlayerStatistics playerStatistics) {
+        for(final String actionName : playerStatistics.getActionNames()) {
+            updateLeaderboard(this.sentLeaderboards, actionName).update(playerStatistics.getPlayerUUID(), playerStatistics.getPlayerName(), playerStatistics.getSent(actionName));
+            updateLeaderboard(this.receivedLeaderboards, actionName).update(playerStatistics.getPlayerUUID(), playerStatistics.getPlayerName(), playerStatistics.getReceived(actionName));
+        }
+    }
+
+    /**
+     * Writes a player's statistics to disk.
+     * Runs on the statistics thread.
+     * @param playerStatistics Statistics to write.
+     */
+    private void write(@NotNull final PlayerStatistics playerStatistics) {
+        final File file = getFile(playerStatistics.getPlayerUUID());
+        final File temporaryFile = new File(this.folder, playerStatistics.getPlayerUUID() + ".tmp");
+
+        try {
+            // Make sure the statistics folder exists.
+            if(!this.folder.exists() && !this.folder.mkdirs()) {
+                throw new IOException("Could not create " + this.folder);
+            }
+
+            // Write to a temporary file first, so a crash mid-write can't corrupt the saved statistics.
+            try(final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile.toPath())))) {
+                playerStatistics.write(output);
+            }
+
+            Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException exception) {
+            exception.printStackTrace();
+        }
+    }
+}
\ No newline at end of file
@@ -26,13 +26,21 @@ package net.jadedmc.chatactions.utils;
 
 import me.clip.placeholderapi.PlaceholderAPI;
 import net.jadedmc.chatactions.ChatActionsPlugin;
+import net.jadedmc.chatactions.messages.MessagePool;
+import net.jadedmc.chatactions.placeholders.PlaceholderResolver;
 import net.kyori.adventure.platform.bukkit.BukkitAudiences;
+import net.kyori.adventure.sound.Sound;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
+import net.kyori.adventure.title.Title;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -40,8 +48,10 @@ import java.util.regex.Pattern;
  * A collection of chat-related utility methods.
  */
 public class ChatUtils {
+    private static final Pattern HEX_PATTERN = Pattern.compile("&#[a-fA-F0-9]{6}");
     private static BukkitAudiences adventure;
     private static ChatActionsPlugin plugin;
+    private static boolean serializedBroadcasts = false;
 
     /**
      * Creates an instance of adventure using an instance of the plugin.
@@ -49,8 +59,24 @@ public class ChatUtils {
      * @param pl Instance of the plugin.
      */
     public static void enable(@NotNull final ChatActionsPlugin pl) {
+        enable(pl, BukkitAudiences.create(pl));
+    }
+
+    /**
+     * Enables ChatUtils with a given instance of adventure.
+     * Lets the load test send messages to fake players.
+     * @param pl Instance of the plugin.
+     * @param audiences Instance of adventure to send messages through.
+     */
+    public static void enable(@NotNull final ChatActionsPlugin pl, @NotNull final BukkitAudiences audiences) {
         plugin = pl;
-        adventure = BukkitAudiences.create(pl);
+        adventure = audiences;
+
+        // Finds the server's chat packets, so broadcasts can share a single packet.
+        serializedBroadcasts = pl.getConfigManager().getConfig().getBoolean("serialized-broadcasts", true);
+        if(serializedBroadcasts) {
+            PacketUtils.enable(pl);
+        }
     }
 
     /**
@@ -64,6 +90,38 @@ public class ChatUtils {
         }
     }
 
+    /**
+     * Sends the same colored message to a group of players.
+     * Placeholders configured to resolve in the background are resolved for every player at once,
+     * rather than one player at a time like {@link #chat(Player, String)} does.
+     * If the message is the same for every player, it is only translated once for the whole group,
+     * and every player is sent the same chat packet, which each connection encodes for its own client.
+     * @param players Players to send the message to.
+     * @param message The message being sent, with %sender% and %target% already replaced.
+     */
+    public static void broadcast(@NotNull final Collection<? extends Player> players, @NotNull final String message) {
+        if(serializedBroadcasts && players.size() > 1 && isSameForEveryone(message)) {
+            final Component component = compile(message);
+            final Object packet = PacketUtils.createChatPacket(GsonComponentSerializer.gson().serialize(component));
+
+            for(final Player player : players) {
+                // Falls back to adventure if the server's chat packets couldn't be found.
+                if(packet == null || !PacketUtils.send(player, packet)) {
+                    adventure.sender(player).sendMessage(component);
+                }
+            }
+
+            return;
+        }
+
+        final List<Player> recipients = new ArrayList<>(players);
+        final List<String> messages = plugin.getPlaceholderResolver().resolve(recipients, message);
+
+        for(int recipient = 0; recipient < recipients.size(); recipient++) {
+            send(recipients.get(recipient), messages == null ? message : messages.get(recipient));
+        }
+    }
+
     /**
      * A quick way to send a CommandSender a colored message.
      * @param sender CommandSender to send message to.
@@ -79,14 +137,108 @@ public class ChatUtils {
      * @param player Player to send message to.
      * @param message The message being sent.
      */
-    public static void chat(@NotNull final Player player, @NotNull String message) {
-        // Translates placeholders if needed.
+    public static void chat(@NotNull final Player player, @NotNull final String message) {
+        send(player, plugin.getPlaceholderResolver().resolve(player, message));
+    }
+
+    /**
+     * Sends a Player a colored message whose background placeholders have already been resolved.
+     * @param player Player to send message to.
+     * @param message The message being sent.
+     */
+    private static void send(@NotNull final Player player, @NotNull final String message) {
+        // Messages without placeholders were already translated, everything else is translated with the player's placeholders.
+        final Component component = MessagePool.component(message);
+        adventure.sender(player).sendMessage(component != null ? component : translate(setPlaceholders(player, message)));
+    }
+
+    /**
+     * Shows a Player a colored action bar message.
+     * Supports PlaceholderAPI placeholders if installed.
+     * @param player Player to show the message to.
+     * @param message The message being shown.
+     */
+    public static void actionBar(@NotNull final Player player, @NotNull final String message) {
+        adventure.player(player).sendActionBar(translate(setPlaceholders(player, plugin.getPlaceholderResolver().resolve(player, message))));
+    }
+
+    /**
+     * Plays a sound to a Player.
+     * @param player Player to play the sound to.
+     * @param sound Sound being played.
+     */
+    public static void playSound(@NotNull final Player player, @NotNull final Sound sound) {
+        adventure.player(player).playSound(sound);
+    }
+
+    /**
+     * Shows a Player a colored title.
+     * Supports PlaceholderAPI placeholders if installed.
+     * @param player Player to show the title to.
+     * @param title The title being shown.
+     * @param subtitle The subtitle being shown.
+     */
+    public static void title(@NotNull final Player player, @NotNull final String title, @NotNull final String subtitle) {
+        final PlaceholderResolver resolver = plugin.getPlaceholderResolver();
+        adventure.player(player).showTitle(Title.title(translate(setPlaceholders(player, resolver.resolve(player, title))), translate(setPlaceholders(player, resolver.resolve(player, subtitle)))));
+    }
+
+    /**
+     * Checks if a message would be the same for every player it is sent to.
+     * Only PlaceholderAPI placeholders, including the ones resolved in the background, change between players.
+     * @param message Message to check.
+     * @return Whether the message has no placeholders to replace for each player.
+     */
+    private static boolean isSameForEveryone(@NotNull final String message) {
+        return !plugin.getHookManager().usePlaceholderAPI() || !PlaceholderAPI.containsPlaceholders(message);
+    }
+
+    /**
+     * Replaces PlaceholderAPI placeholders in a message, if PlaceholderAPI is installed.
+     * @param player Player to parse placeholders for.
+     * @param message Message to parse.
+     * @return Message with placeholders replaced.
+     */
+    @NotNull
+    private static String setPlaceholders(@NotNull final Player player, @NotNull final String message) {
         if(plugin.getHookManager().usePlaceholderAPI()) {
-            message = PlaceholderAPI.setPlaceholders(player, message);
+            return PlaceholderAPI.setPlaceholders(player, message);
+        }
+
+        return message;
+    }
+
+    /**
+     * Formats a group of players' names into a readable list, like "A, B and C".
+     * @param players Players to list.
+     * @return Formatted names.
+     */
+    @NotNull
+    public static String formatNames(@NotNull final Collection<Player> players) {
+        final StringBuilder names = new StringBuilder();
+        int index = 0;
+
+        for(final Player player : players) {
+            if(index > 0) {
+                names.append(index == players.size() - 1 ? " and " : ", ");
+            }
+
+            names.append(player.getName());
+            index++;
         }
 
-        // Sends the message to the player.
-        adventure.sender(player).sendMessage(translate(message));
+        return names.toString();
+    }
+
+    /**
+     * Translates a message, reusing the shared component of messages without placeholders.
+     * @param message Message to translate.
+     * @return Translated message.
+     */
+    @NotNull
+    private static Component compile(@NotNull final String message) {
+        final Component component = MessagePool.component(message);
+        return component != null ? component : translate(message);
     }
 
     /**
@@ -105,18 +257,22 @@ public class ChatUtils {
      * @return Message with the color codes replaced.
      */
     public static String replaceLegacy(String message) {
+        // Skip messages that don't use any legacy codes, like ones that have already been translated.
+        if(message.indexOf('&') < 0 && message.indexOf('§') < 0) {
+            return message;
+        }
+
         // Get the server version.
         final int subVersion = VersionUtils.getServerVersion();
 
         // If the version is 1.16 or greater, check for hex color codes.
         if(subVersion >= 16) {
-            final Pattern pattern = Pattern.compile("&#[a-fA-F0-9]{6}");
-            Matcher matcher = pattern.matcher(message);
+            Matcher matcher = HEX_PATTERN.matcher(message);
 
             while (matcher.find()) {
                 final String color = message.substring(matcher.start() + 1, matcher.end());
                 message = message.replace("&" + color, "<reset><color:" + color + ">");
-                matcher = pattern.matcher(message);
+                matcher = HEX_PATTERN.matcher(message);
             }
         }
 
@@ -0,0 +1,65 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.utils;
+
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Keeps track of when players were last in combat.
+ * Only used on the main thread.
+ */
+public class CombatUtils {
+    private static final Map<UUID, Long> lastCombat = new HashMap<>();
+
+    /**
+     * Gets the last time a player was in combat.
+     * @param player Player to check.
+     * @return Time (in milliseconds) the player was last in combat, 0 if they haven't been.
+     */
+    public static long getLastCombat(@NotNull final Player player) {
+        return lastCombat.getOrDefault(player.getUniqueId(), 0L);
+    }
+
+    /**
+     * Marks a player as having just been in combat.
+     * @param player Player to mark.
+     */
+    public static void tag(@NotNull final Player player) {
+        lastCombat.put(player.getUniqueId(), System.currentTimeMillis());
+    }
+
+    /**
+     * Forgets when a player was last in combat.
+     * @param player Player to forget.
+     */
+    public static void remove(@NotNull final Player player) {
+        lastCombat.remove(player.getUniqueId());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,157 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.utils;
+
+import net.jadedmc.chatactions.ChatActionsPlugin;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * A collection of methods for sending one chat packet to many players, like the server does for its own broadcasts.
+ * The message is converted to the server's chat component once, and the packet is built once,
+ * but each player's connection still encodes it for its own client, so protocol translators keep working.
+ * The server's internals are found using Reflection when the plugin is enabled.
+ * If they can't be found, no packets are created and messages should be sent through adventure instead.
+ */
+public class PacketUtils {
+    private static Method fromJson = null;
+    private static Constructor<?> packetConstructor = null;
+    private static Method getHandle = null;
+    private static Field connection = null;
+    private static Method send = null;
+    private static boolean enabled = false;
+
+    /**
+     * Finds the server internals used to create and send chat packets.
+     * Called when the plugin is enabled.
+     * @param plugin Instance of the plugin.
+     */
+    public static void enable(@NotNull final ChatActionsPlugin plugin) {
+        enabled = false;
+        connection = null;
+
+        try {
+            // CraftBukkit's package, like org.bukkit.craftbukkit.v1_20_R3, depends on the server version.
+            final String craftBukkit = plugin.getServer().getClass().getPackage().getName();
+            fromJson = Class.forName(craftBukkit + ".util.CraftChatMessage").getMethod("fromJSON", String.class);
+            getHandle = Class.forName(craftBukkit + ".entity.CraftPlayer").getMethod("getHandle");
+
+            final Class<?> packetClass = Class.forName("net.minecraft.network.protocol.Packet");
+            final Class<?> listenerClass = Class.forName("net.minecraft.network.PacketListener");
+            packetConstructor = Class.forName("net.minecraft.network.protocol.game.ClientboundSystemChatPacket").getConstructor(fromJson.getReturnType(), boolean.class);
+
+            // Field and method names are obfuscated on some servers, so the player's connection is found by its type.
+            for(Class<?> type = getHandle.getReturnType(); type != null && connection == null; type = type.getSuperclass()) {
+                for(final Field field : type.getDeclaredFields()) {
+                    if(!listenerClass.isAssignableFrom(field.getType())) {
+                        continue;
+                    }
+
+                    final Method sendMethod = findSend(field.getType(), packetClass);
+
+                    if(sendMethod != null) {
+                        field.setAccessible(true);
+                        connection = field;
+                        send = sendMethod;
+                        break;
+                    }
+                }
+            }
+
+            if(connection == null) {
+                throw new NoSuchFieldException("No player connection in " + getHandle.getReturnType().getName());
+            }
+
+            enabled = true;
+        }
+        catch (ReflectiveOperationException | RuntimeException exception) {
+            plugin.getLogger().warning("Could not find the server's chat packets, broadcasts will be sent to each player separately: " + exception);
+        }
+    }
+
+    /**
+     * Creates a system chat packet, which can be sent to any number of players.
+     * @param json Message to send, as a JSON chat component.
+     * @return Chat packet, null if packets are not supported or the message is invalid.
+     */
+    @Nullable
+    public static Object createChatPacket(@NotNull final String json) {
+        if(!enabled) {
+            return null;
+        }
+
+        try {
+            return packetConstructor.newInstance(fromJson.invoke(null, json), false);
+        }
+        catch (ReflectiveOperationException | RuntimeException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * Sends a packet created by this class to a player.
+     * @param player Player to send the packet to.
+     * @param packet Packet to send.
+     * @return Whether the packet was sent. If not, the message should be sent another way.
+     */
+    public static boolean send(@NotNull final Player player, @NotNull final Object packet) {
+        try {
+            final Object playerConnection = connection.get(getHandle.invoke(player));
+
+            // Players who are still joining don't have a connection yet.
+            if(playerConnection == null) {
+                return false;
+            }
+
+            send.invoke(playerConnection, packet);
+            return true;
+        }
+        catch (ReflectiveOperationException | RuntimeException exception) {
+            return false;
+        }
+    }
+
+    /**
+     * Finds the method a class uses to send a single packet.
+     * @param type Class to search.
+     * @param packetClass Class of packets.
+     * @return Method that sends a packet, null if the class doesn't have one.
+     */
+    @Nullable
+    private static Method findSend(@NotNull final Class<?> type, @NotNull final Class<?> packetClass) {
+        for(final Method method : type.getMethods()) {
+            if(method.getParameterCount() == 1 && method.getParameterTypes()[0] == packetClass && method.getReturnType() == void.class) {
+                return method;
+            }
+        }
+
+        return null;
+    }
+}
\ No newline at end of file
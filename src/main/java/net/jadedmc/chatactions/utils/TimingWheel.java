@@ -0,0 +1,152 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.utils;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A hashed timing wheel, used to run large numbers of delayed tasks from a single scheduler task.
+ * Scheduling and cancelling are O(1), and each tick only visits the tasks in one bucket.
+ * Not thread safe, it should only be used from the main thread.
+ */
+public class TimingWheel {
+    private final Timeout[] buckets;
+    private final int mask;
+    private long currentTick = 0;
+    private int pending = 0;
+
+    /**
+     * Creates the timing wheel.
+     * @param size Number of buckets, rounded up to a power of two.
+     */
+    public TimingWheel(final int size) {
+        final int bucketCount = Integer.highestOneBit(Math.max(2, size) - 1) << 1;
+        this.buckets = new Timeout[bucketCount];
+        this.mask = bucketCount - 1;
+    }
+
+    /**
+     * Gets the number of tasks waiting to run.
+     * @return Pending task count.
+     */
+    public int getPending() {
+        return this.pending;
+    }
+
+    /**
+     * Schedules a task to run after a delay.
+     * @param task Task to run.
+     * @param delay Delay in ticks, at least 1.
+     * @return Timeout that can be used to cancel the task.
+     */
+    @NotNull
+    public Timeout schedule(@NotNull final Runnable task, final long delay) {
+        final long ticks = Math.max(1, delay);
+        final int bucket = (int) ((this.currentTick + ticks) & this.mask);
+
+        // The number of full turns the wheel makes before the task is due.
+        final Timeout timeout = new Timeout(task, (ticks - 1) / this.buckets.length);
+        timeout.next = this.buckets[bucket];
+        this.buckets[bucket] = timeout;
+        this.pending++;
+        return timeout;
+    }
+
+    /**
+     * Advances the wheel by one tick, running every task that is now due.
+     * Should be called once per server tick.
+     */
+    public void tick() {
+        this.currentTick++;
+        final int bucket = (int) (this.currentTick & this.mask);
+
+        // Detach the bucket, so tasks scheduled while running are not visited this tick.
+        Timeout timeout = this.buckets[bucket];
+        this.buckets[bucket] = null;
+
+        while(timeout != null) {
+            final Timeout next = timeout.next;
+
+            if(timeout.cancelled) {
+                this.pending--;
+            }
+            else if(timeout.rounds > 0) {
+                // Not due yet, put it back for the next turn.
+                timeout.rounds--;
+                timeout.next = this.buckets[bucket];
+                this.buckets[bucket] = timeout;
+            }
+            else {
+                this.pending--;
+                timeout.cancelled = true;
+
+                try {
+                    timeout.task.run();
+                }
+                catch (RuntimeException exception) {
+                    exception.printStackTrace();
+                }
+            }
+
+            timeout = next;
+        }
+    }
+
+    /**
+     * Represents a task waiting on the wheel.
+     */
+    public static class Timeout {
+        private final Runnable task;
+        private long rounds;
+        private boolean cancelled = false;
+        private Timeout next;
+
+        /**
+         * Creates the timeout.
+         * @param task Task to run.
+         * @param rounds Number of full turns to wait before running.
+         */
+        private Timeout(@NotNull final Runnable task, final long rounds) {
+            this.task = task;
+            this.rounds = rounds;
+        }
+
+        /**
+         * Stops the task from running.
+         * The task is removed from the wheel the next time its bucket is visited.
+         */
+        public void cancel() {
+            this.cancelled = true;
+        }
+
+        /**
+         * Get if the task has been cancelled or has already run.
+         * @return Whether the task is finished.
+         */
+        public boolean isDone() {
+            return this.cancelled;
+        }
+    }
+}
\ No newline at end of file
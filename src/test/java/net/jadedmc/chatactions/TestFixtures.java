@@ -0,0 +1,125 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions;
+
+import net.jadedmc.chatactions.actions.Action;
+import org.bukkit.World;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+
+import java.io.File;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Creates the mocked plugin, actions, players and worlds shared by the unit tests.
+ */
+public final class TestFixtures {
+
+    /**
+     * Only holds static factories.
+     */
+    private TestFixtures() {}
+
+    /**
+     * Creates a plugin using a given config, without PlaceholderAPI.
+     * @param config Config of the plugin.
+     * @param dataFolder Folder the plugin stores its files in.
+     * @return Mocked plugin.
+     */
+    public static ChatActionsPlugin mockPlugin(final YamlConfiguration config, final File dataFolder) {
+        return mockPlugin(config, dataFolder, false);
+    }
+
+    /**
+     * Creates a plugin using a given config.
+     * @param config Config of the plugin.
+     * @param dataFolder Folder the plugin stores its files in.
+     * @param placeholderAPI Whether PlaceholderAPI is installed.
+     * @return Mocked plugin.
+     */
+    public static ChatActionsPlugin mockPlugin(final YamlConfiguration config, final File dataFolder, final boolean placeholderAPI) {
+        final ConfigManager configManager = mock(ConfigManager.class);
+        when(configManager.getConfig()).thenReturn(config);
+        final HookManager hookManager = mock(HookManager.class);
+        when(hookManager.usePlaceholderAPI()).thenReturn(placeholderAPI);
+
+        final ChatActionsPlugin plugin = mock(ChatActionsPlugin.class);
+        when(plugin.getConfigManager()).thenReturn(configManager);
+        when(plugin.getHookManager()).thenReturn(hookManager);
+        when(plugin.getDataFolder()).thenReturn(dataFolder);
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("ChatActionsTest"));
+        return plugin;
+    }
+
+    /**
+     * Creates an action with a given name.
+     * @param name Name of the action.
+     * @return Mocked action.
+     */
+    public static Action mockAction(final String name) {
+        final Action action = mock(Action.class);
+        when(action.getName()).thenReturn(name);
+        return action;
+    }
+
+    /**
+     * Creates a player with a given name and a random unique id.
+     * @param name Name of the player.
+     * @return Mocked player.
+     */
+    public static Player mockPlayer(final String name) {
+        final Player player = mock(Player.class);
+        when(player.getName()).thenReturn(name);
+        when(player.getUniqueId()).thenReturn(UUID.randomUUID());
+        return player;
+    }
+
+    /**
+     * Creates a player in a given world.
+     * @param name Name of the player.
+     * @param world World the player is in.
+     * @return Mocked player.
+     */
+    public static Player mockPlayer(final String name, final World world) {
+        final Player player = mockPlayer(name);
+        when(player.getWorld()).thenReturn(world);
+        return player;
+    }
+
+    /**
+     * Creates a world with a given name.
+     * @param name Name of the world.
+     * @return Mocked world.
+     */
+    public static World mockWorld(final String name) {
+        final World world = mock(World.class);
+        when(world.getName()).thenReturn(name);
+        return world;
+    }
+}
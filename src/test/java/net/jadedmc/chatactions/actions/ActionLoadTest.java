@@ -0,0 +1,512 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.actions;
+
+import net.jadedmc.chatactions.ChatActionsPlugin;
+import net.jadedmc.chatactions.ConfigManager;
+import net.jadedmc.chatactions.HookManager;
+import net.jadedmc.chatactions.audit.AuditLog;
+import net.jadedmc.chatactions.messages.MessagePool;
+import net.jadedmc.chatactions.placeholders.PlaceholderResolver;
+import net.jadedmc.chatactions.queue.QueueManager;
+import net.jadedmc.chatactions.reciprocal.ReciprocalManager;
+import net.jadedmc.chatactions.sequences.SequenceManager;
+import net.jadedmc.chatactions.statistics.StatisticsManager;
+import net.jadedmc.chatactions.utils.ChatUtils;
+import net.jadedmc.chatactions.utils.CommandUtils;
+import net.jadedmc.chatactions.utils.TimingWheel;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Random;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Replays a stream of action commands from thousands of fake players through ActionCMD, one server tick at a time.
+ * Only ticks where a command or delayed task ran are sampled, and each sample includes the timing wheel's tick.
+ * Reports the per-tick cost, allocations, and messages sent. Fails if p99, as a multiple of a reference workload run
+ * in the same JVM, or allocations rise too far above the saved baseline, or if the stream sends a different number of messages.
+ * Also compares broadcasts serialized once per group against ones serialized for every player, on the same stream.
+ * Run with "mvn test -Pload-test", and add "-Dchatactions.update-baseline=true" to save a new baseline.
+ */
+@Tag("load")
+class ActionLoadTest {
+    private static final int PLAYERS = 2000;
+    private static final int WARMUP_TICKS = 1000;
+    private static final int TICKS = 3000;
+    private static final int COMPARED_TICKS = 300;
+    private static final String[] WORLDS = {"lobby", "survival"};
+    private static final String[] LOCALES = {"en_us", "en_gb", "de_de", "es_es"};
+    private static final int MAX_DRAIN_TICKS = 20 * 60;
+    private static final int REFERENCE_RUNS = 15;
+    private static final int REFERENCE_MESSAGES = 2000;
+    private static final String BASELINE = "load-test-baseline.properties";
+
+    @TempDir
+    File folder;
+
+    private FakeServer fakeServer;
+    private YamlConfiguration config;
+    private ChatActionsPlugin plugin;
+    private List<ActionCMD> commands;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        this.fakeServer = new FakeServer(PLAYERS, WORLDS, LOCALES, 10);
+
+        // Bukkit's server can only be set once, and is only used for the server version.
+        if(Bukkit.getServer() == null) {
+            Bukkit.setServer(this.fakeServer.getServer());
+        }
+
+        final YamlConfiguration config;
+        try(final InputStream input = getClass().getClassLoader().getResourceAsStream("load-test.yml")) {
+            assertNotNull(input, "Missing load-test.yml");
+            config = YamlConfiguration.loadConfiguration(new InputStreamReader(input, StandardCharsets.UTF_8));
+        }
+        this.config = config;
+
+        final ConfigManager configManager = mock(ConfigManager.class, withSettings().stubOnly());
+        when(configManager.getConfig()).thenReturn(config);
+        final HookManager hookManager = mock(HookManager.class, withSettings().stubOnly());
+        when(hookManager.usePlaceholderAPI()).thenReturn(false);
+
+        // The plugin is a mock, but every manager the commands use is the real one.
+        this.plugin = mock(ChatActionsPlugin.class, withSettings().stubOnly());
+        when(this.plugin.getConfigManager()).thenReturn(configManager);
+        when(this.plugin.getHookManager()).thenReturn(hookManager);
+        when(this.plugin.getDataFolder()).thenReturn(this.folder);
+        when(this.plugin.getLogger()).thenReturn(Logger.getLogger("ActionLoadTest"));
+        when(this.plugin.getServer()).thenReturn(this.fakeServer.getServer());
+
+        final PlaceholderResolver placeholderResolver = new PlaceholderResolver(this.plugin);
+        when(this.plugin.getPlaceholderResolver()).thenReturn(placeholderResolver);
+        final TimingWheel timingWheel = new TimingWheel(512);
+        when(this.plugin.getTimingWheel()).thenReturn(timingWheel);
+        final StatisticsManager statisticsManager = new StatisticsManager(this.plugin);
+        when(this.plugin.getStatisticsManager()).thenReturn(statisticsManager);
+        final AuditLog auditLog = new AuditLog(this.plugin);
+        when(this.plugin.getAuditLog()).thenReturn(auditLog);
+        final QueueManager queueManager = new QueueManager(this.plugin);
+        when(this.plugin.getQueueManager()).thenReturn(queueManager);
+        final SequenceManager sequenceManager = new SequenceManager(this.plugin);
+        when(this.plugin.getSequenceManager()).thenReturn(sequenceManager);
+        final ReciprocalManager reciprocalManager = new ReciprocalManager(this.plugin);
+        when(this.plugin.getReciprocalManager()).thenReturn(reciprocalManager);
+
+        // Actions register their commands to the fake command map as they load.
+        setStatic(CommandUtils.class, "plugin", this.plugin);
+        setStatic(CommandUtils.class, "commandMap", this.fakeServer.getCommandMap());
+
+        final List<Action> actions = new ArrayList<>();
+        final ConfigurationSection actionsConfig = config.getConfigurationSection("actions");
+        assertNotNull(actionsConfig);
+        for(final String actionName : actionsConfig.getKeys(false)) {
+            actions.add(new Action(hookManager, actions.size(), actionName, actionsConfig.getConfigurationSection(actionName)));
+        }
+
+        final ActionManager actionManager = mock(ActionManager.class, withSettings().stubOnly());
+        when(actionManager.getAvailabilityIndex()).thenReturn(new AvailabilityIndex(actions));
+        when(actionManager.getTargetSelector()).thenReturn(new TargetSelector(hookManager, config.getConfigurationSection("selectors")));
+        when(this.plugin.getActionManager()).thenReturn(actionManager);
+
+        this.commands = new ArrayList<>();
+        for(final Action action : actions) {
+            this.commands.add((ActionCMD) this.fakeServer.getCommand(action.getName()));
+        }
+
+        ChatUtils.enable(this.plugin, this.fakeServer.getAudiences());
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.plugin.getStatisticsManager().shutdown();
+        this.plugin.getAuditLog().shutdown();
+        this.plugin.getQueueManager().shutdown();
+        ChatUtils.disable();
+        MessagePool.clear();
+    }
+
+    @Test
+    void replayedCommandsStayWithinTheBaseline() throws IOException {
+        // Lets the JIT compile the command path before anything is measured.
+        replay(createStream(WARMUP_TICKS, 1), null);
+        measureReference();
+
+        final List<long[]> samples = new ArrayList<>();
+        replay(createStream(TICKS, 2), samples);
+        final long reference = measureReference();
+
+        final long[] nanos = column(samples, 0);
+        final long[] bytes = column(samples, 1);
+        final long[] messages = column(samples, 2);
+        final long p99 = percentile(nanos, 99);
+        final double ratio = (double) p99 / reference;
+        final long bytesP99 = percentile(bytes, 99);
+        final long sent = Arrays.stream(messages).sum();
+
+        System.out.printf("Action load test: %,d players, %,d ticks sampled%n", PLAYERS, nanos.length);
+        System.out.printf("  Tick cost: %s ms p50, %s ms p90, %s ms p99, %s ms max%n",
+                millis(percentile(nanos, 50)), millis(percentile(nanos, 90)), millis(p99), millis(nanos[nanos.length - 1]));
+        System.out.printf("  Reference workload: %s ms, p99 is %.2fx the reference%n", millis(reference), ratio);
+        if(bytesP99 >= 0) {
+            System.out.printf("  Allocated: %,d KB p50, %,d KB p99 per tick%n", percentile(bytes, 50) / 1024, bytesP99 / 1024);
+        }
+        System.out.printf("  Messages: %,d sent, %,d p50, %,d p99 per tick%n", sent, percentile(messages, 50), percentile(messages, 99));
+
+        final File baselineFile = new File("src/test/resources/" + BASELINE);
+        if(Boolean.getBoolean("chatactions.update-baseline")) {
+            saveBaseline(baselineFile, ratio, bytesP99, sent);
+            System.out.printf("  Saved the baseline to %s%n", baselineFile.getPath());
+            return;
+        }
+
+        final Properties baseline = new Properties();
+        try(final InputStream input = getClass().getClassLoader().getResourceAsStream(BASELINE)) {
+            assertNotNull(input, "Missing " + BASELINE + ", run with -Dchatactions.update-baseline=true to create it");
+            baseline.load(input);
+        }
+
+        final long tolerance = Long.parseLong(baseline.getProperty("tolerance-percent", "50"));
+        final double ratioLimit = Double.parseDouble(baseline.getProperty("p99-reference-ratio")) * (100 + tolerance) / 100;
+        final long bytesLimit = Long.parseLong(baseline.getProperty("p99-allocated-bytes")) * (100 + tolerance) / 100;
+        System.out.printf("  Baseline: %.2fx the reference and %,d KB p99 allowed%n", ratioLimit, bytesLimit / 1024);
+
+        // A different number of messages means the replayed workload changed, so the baseline no longer applies.
+        assertEquals(Long.parseLong(baseline.getProperty("messages")), sent, "The replayed stream sent a different number of messages, run with -Dchatactions.update-baseline=true to save a new baseline");
+        assertTrue(ratio <= ratioLimit, String.format("Tick cost p99 is %.2fx the reference workload, more than the %.2fx allowed", ratio, ratioLimit));
+        if(bytesP99 >= 0) {
+            assertTrue(bytesP99 <= bytesLimit, "Allocated " + bytesP99 / 1024 + " KB p99 per tick, more than the " + bytesLimit / 1024 + " KB allowed");
+        }
+    }
+
+    @Test
+    void serializedBroadcastsTranslateEachMessageOnce() {
+        final List<List<ReplayedCommand>> warmup = createStream(COMPARED_TICKS, 3);
+        final List<List<ReplayedCommand>> stream = createStream(COMPARED_TICKS, 4);
+
+        // Both ways of broadcasting are warmed up before either is measured.
+        replayWith(false, warmup, null);
+        replayWith(true, warmup, null);
+
+        final List<long[]> perPlayer = new ArrayList<>();
+        replayWith(false, stream, perPlayer);
+        final List<long[]> serialized = new ArrayList<>();
+        replayWith(true, stream, serialized);
+
+        System.out.printf("Broadcast comparison: %,d players, %,d ticks%n", PLAYERS, COMPARED_TICKS);
+        report("Per player", perPlayer);
+        report("Serialized", serialized);
+
+        // Timings and allocations are only reported, as they depend on the machine. Translations don't.
+        assertEquals(total(perPlayer, 2), total(serialized, 2), "Both ways of broadcasting should send the same messages");
+        assertTrue(total(serialized, 3) < total(perPlayer, 3), "Serialized broadcasts translated " + total(serialized, 3) + " messages, per-player ones translated " + total(perPlayer, 3));
+    }
+
+    /**
+     * Runs a stream of commands with broadcasts serialized once per group, or once per player.
+     * @param serializedBroadcasts Whether broadcasts are serialized once for the whole group.
+     * @param stream Commands to run in each tick.
+     * @param samples List to add the samples of each tick that ran commands to, or null to skip measuring.
+     */
+    private void replayWith(final boolean serializedBroadcasts, final List<List<ReplayedCommand>> stream, final List<long[]> samples) {
+        this.config.set("serialized-broadcasts", serializedBroadcasts);
+        ChatUtils.enable(this.plugin, this.fakeServer.getAudiences());
+        replay(stream, samples);
+    }
+
+    /**
+     * Prints the total and per-tick cost of one side of a comparison.
+     * @param name Name of the side.
+     * @param samples Samples of each tick.
+     */
+    private static void report(final String name, final List<long[]> samples) {
+        final long[] nanos = column(samples, 0);
+        System.out.printf("  %s: %s ms total, %s ms p50, %s ms p99", name, millis(total(samples, 0)), millis(percentile(nanos, 50)), millis(percentile(nanos, 99)));
+        if(total(samples, 1) >= 0) {
+            System.out.printf(", %,d KB allocated", total(samples, 1) / 1024);
+        }
+        System.out.printf(", %,d messages, %,d translated%n", total(samples, 2), total(samples, 3));
+    }
+
+    /**
+     * Runs a stream of commands, one server tick at a time, then keeps ticking until every delayed task has run,
+     * so the next stream starts from the same state.
+     * @param stream Commands to run in each tick.
+     * @param samples List to add the time, allocated bytes, messages, and translated messages of each tick that ran commands to, or null to skip measuring.
+     */
+    private void replay(final List<List<ReplayedCommand>> stream, final List<long[]> samples) {
+        final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final boolean measureAllocations = threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled();
+        final long threadId = Thread.currentThread().getId();
+
+        // Keeps ticking after the stream ends, until every sequence step and reciprocal timeout has run.
+        for(int tick = 0; tick < stream.size() || (this.plugin.getTimingWheel().getPending() > 0 && tick < stream.size() + MAX_DRAIN_TICKS); tick++) {
+            final List<ReplayedCommand> commands = tick < stream.size() ? stream.get(tick) : List.of();
+            final long messagesBefore = this.fakeServer.getMessages();
+            final long componentsBefore = this.fakeServer.getComponents();
+            final long bytesBefore = measureAllocations ? threads.getThreadAllocatedBytes(threadId) : 0;
+            final long start = System.nanoTime();
+
+            for(final ReplayedCommand command : commands) {
+                command.command.execute(command.sender, command.command.getName(), command.args);
+            }
+
+            // Delayed tasks, like sequence steps and reciprocal timeouts, are part of the tick's cost.
+            final int pendingBefore = this.plugin.getTimingWheel().getPending();
+            this.plugin.getTimingWheel().tick();
+
+            final long nanos = System.nanoTime() - start;
+            final long bytes = measureAllocations ? threads.getThreadAllocatedBytes(threadId) - bytesBefore : -1;
+
+            // Ticks where no command or delayed task ran are not sampled.
+            if(samples != null && (!commands.isEmpty() || this.plugin.getTimingWheel().getPending() < pendingBefore)) {
+                samples.add(new long[]{nanos, bytes, this.fakeServer.getMessages() - messagesBefore, this.fakeServer.getComponents() - componentsBefore});
+            }
+        }
+    }
+
+    /**
+     * Times a fixed workload that doesn't use the plugin, so tick costs can be compared between machines.
+     * The workload parses chat messages, which is the bulk of what sending an action costs.
+     * @return Median time of the workload in nanoseconds.
+     */
+    private static long measureReference() {
+        final long[] runs = new long[REFERENCE_RUNS];
+        int checksum = 0;
+
+        for(int run = 0; run < runs.length; run++) {
+            final long start = System.nanoTime();
+            for(int i = 0; i < REFERENCE_MESSAGES; i++) {
+                checksum += MiniMessage.miniMessage().deserialize("<gold>Player" + i + " <gray>waves to <gold>Player" + (i + 1) + "<gray>. Hi!").children().size();
+            }
+            runs[run] = System.nanoTime() - start;
+        }
+
+        // Makes sure the workload can't be optimised away.
+        assertTrue(checksum > 0);
+        Arrays.sort(runs);
+        return runs[runs.length / 2];
+    }
+
+    /**
+     * Creates a random, but repeatable, stream of commands.
+     * About a third of ticks are idle, and the rest run up to four commands.
+     * @param ticks Number of ticks to create commands for.
+     * @param seed Seed of the stream.
+     * @return Commands to run in each tick.
+     */
+    private List<List<ReplayedCommand>> createStream(final int ticks, final long seed) {
+        final Random random = new Random(seed);
+        final List<Player> players = this.fakeServer.getPlayers();
+        final List<List<ReplayedCommand>> stream = new ArrayList<>(ticks);
+        ReplayedCommand lastWave = null;
+
+        for(int tick = 0; tick < ticks; tick++) {
+            final List<ReplayedCommand> commands = new ArrayList<>();
+            final int count = random.nextInt(3) == 0 ? 0 : 1 + random.nextInt(4);
+
+            for(int i = 0; i < count; i++) {
+                final Player sender = players.get(random.nextInt(players.size()));
+                final ActionCMD command = this.commands.get(random.nextInt(this.commands.size()));
+                final int roll = random.nextInt(100);
+
+                // Wave back at whoever waved last, completing the reciprocal action.
+                if(lastWave != null && command == lastWave.command && roll < 20) {
+                    final Player target = this.fakeServer.getServer().getPlayer(lastWave.args[0]);
+                    commands.add(new ReplayedCommand(command, target, new String[]{lastWave.sender.getName()}));
+                    lastWave = null;
+                    continue;
+                }
+
+                final String[] args;
+                if(roll < 10) {
+                    args = new String[]{"all"};
+                }
+                else if(roll < 15) {
+                    args = new String[]{"Offline" + random.nextInt(100)};
+                }
+                else if(roll < 18) {
+                    args = new String[]{sender.getName()};
+                }
+                else if(roll < 28) {
+                    args = new String[2 + random.nextInt(4)];
+                    for(int target = 0; target < args.length; target++) {
+                        args[target] = players.get(random.nextInt(players.size())).getName();
+                    }
+                }
+                else {
+                    args = new String[]{players.get(random.nextInt(players.size())).getName()};
+                }
+
+                final ReplayedCommand replayedCommand = new ReplayedCommand(command, sender, args);
+                commands.add(replayedCommand);
+                if(command.getName().equals("wave") && args.length == 1) {
+                    lastWave = replayedCommand;
+                }
+            }
+
+            stream.add(commands);
+        }
+
+        return stream;
+    }
+
+    /**
+     * Saves a new baseline.
+     * @param file Baseline file.
+     * @param ratio Tick cost p99 as a multiple of the reference workload.
+     * @param bytes Bytes allocated per tick p99, -1 if they couldn't be measured.
+     * @param messages Messages sent by the replayed stream.
+     * @throws IOException If the file could not be written.
+     */
+    private static void saveBaseline(final File file, final double ratio, final long bytes, final long messages) throws IOException {
+        final Properties baseline = new Properties();
+        baseline.setProperty("p99-reference-ratio", String.format(Locale.ROOT, "%.3f", ratio));
+        baseline.setProperty("p99-allocated-bytes", String.valueOf(Math.max(0, bytes)));
+        baseline.setProperty("messages", String.valueOf(messages));
+        baseline.setProperty("tolerance-percent", "50");
+
+        try(final OutputStream output = Files.newOutputStream(file.toPath())) {
+            baseline.store(output, "Tick cost p99 of ActionLoadTest as a multiple of the reference workload, allocations p99, messages sent, and how far above them a run can be before the test fails");
+        }
+    }
+
+    /**
+     * Gets one value of every sample, sorted.
+     * @param samples Samples of each tick.
+     * @param index Index of the value.
+     * @return Sorted values.
+     */
+    private static long[] column(final List<long[]> samples, final int index) {
+        final long[] values = new long[samples.size()];
+        for(int i = 0; i < values.length; i++) {
+            values[i] = samples.get(i)[index];
+        }
+
+        Arrays.sort(values);
+        return values;
+    }
+
+    /**
+     * Adds up one value of every sample.
+     * @param samples Samples of each tick.
+     * @param index Index of the value.
+     * @return Sum of the values, or -1 if they weren't measured.
+     */
+    private static long total(final List<long[]> samples, final int index) {
+        long total = 0;
+        for(final long[] sample : samples) {
+            if(sample[index] < 0) {
+                return -1;
+            }
+            total += sample[index];
+        }
+
+        return total;
+    }
+
+    /**
+     * Gets a percentile of sorted values.
+     * @param sorted Values, sorted from low to high.
+     * @param percentile Percentile to get.
+     * @return Value at the percentile.
+     */
+    private static long percentile(final long[] sorted, final int percentile) {
+        return sorted[Math.max(0, (int) Math.ceil(sorted.length * percentile / 100.0) - 1)];
+    }
+
+    /**
+     * Formats nanoseconds as milliseconds.
+     * @param nanos Nanoseconds to format.
+     * @return Formatted milliseconds.
+     */
+    private static String millis(final long nanos) {
+        return String.format("%.3f", nanos / 1_000_000.0);
+    }
+
+    /**
+     * Sets a private static field.
+     * @param type Class the field is in.
+     * @param name Name of the field.
+     * @param value Value to set.
+     * @throws ReflectiveOperationException If the field could not be set.
+     */
+    private static void setStatic(final Class<?> type, final String name, final Object value) throws ReflectiveOperationException {
+        final Field field = type.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(null, value);
+    }
+
+    /**
+     * A command to run as part of the replayed stream.
+     */
+    private static final class ReplayedCommand {
+        private final ActionCMD command;
+        private final Player sender;
+        private final String[] args;
+
+        /**
+         * Creates a replayed command.
+         * @param command Command to run.
+         * @param sender Player running the command.
+         * @param args Arguments of the command.
+         */
+        private ReplayedCommand(final ActionCMD command, final Player sender, final String[] args) {
+            this.command = command;
+            this.sender = sender;
+            this.args = args;
+        }
+    }
+}
\ No newline at end of file
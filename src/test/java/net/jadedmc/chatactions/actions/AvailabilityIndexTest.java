@@ -0,0 +1,139 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.actions;
+
+import net.jadedmc.chatactions.TestFixtures;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static net.jadedmc.chatactions.TestFixtures.mockWorld;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the per-player bit sets of actions allowed by world and group.
+ */
+class AvailabilityIndexTest {
+    private final Action everywhere = mockAction(0, new String[0], new String[0]);
+    private final Action lobbyOnly = mockAction(1, new String[]{"lobby"}, new String[0]);
+    private final Action vipOnly = mockAction(2, new String[0], new String[]{"vip"});
+    private final Action lobbyOrHub = mockAction(3, new String[]{"lobby", "hub"}, new String[0]);
+    private final Action staffInHub = mockAction(4, new String[]{"hub"}, new String[]{"staff", "admin"});
+    private final AvailabilityIndex index = new AvailabilityIndex(List.of(this.everywhere, this.lobbyOnly, this.vipOnly, this.lobbyOrHub, this.staffInHub));
+
+    @Test
+    void unrestrictedActionsAreAlwaysAvailable() {
+        final Player player = mockPlayer("survival");
+
+        assertTrue(this.index.isAvailable(player, this.everywhere));
+        assertFalse(this.index.isAvailable(player, this.lobbyOnly));
+        assertFalse(this.index.isAvailable(player, this.lobbyOrHub));
+        assertFalse(this.index.isAvailable(player, this.vipOnly));
+    }
+
+    @Test
+    void worldRestrictedActionsOnlyWorkInTheirWorlds() {
+        final Player lobby = mockPlayer("lobby");
+        final Player hub = mockPlayer("hub");
+
+        assertTrue(this.index.isAvailable(lobby, this.lobbyOnly));
+        assertTrue(this.index.isAvailable(lobby, this.lobbyOrHub));
+        assertFalse(this.index.isAvailable(hub, this.lobbyOnly));
+        assertTrue(this.index.isAvailable(hub, this.lobbyOrHub));
+    }
+
+    @Test
+    void groupRestrictedActionsNeedAnyOfTheirGroups() {
+        final Player vip = mockPlayer("survival", "vip");
+        final Player admin = mockPlayer("hub", "admin");
+        final Player guest = mockPlayer("hub");
+
+        assertTrue(this.index.isAvailable(vip, this.vipOnly));
+        assertFalse(this.index.isAvailable(admin, this.vipOnly));
+
+        // Needs both the world and one of the groups.
+        assertTrue(this.index.isAvailable(admin, this.staffInHub));
+        assertFalse(this.index.isAvailable(guest, this.staffInHub));
+        assertFalse(this.index.isAvailable(mockPlayer("lobby", "staff"), this.staffInHub));
+    }
+
+    @Test
+    void updateReportsChangesAfterSwitchingWorlds() {
+        final Player player = mockPlayer("survival");
+        assertFalse(this.index.isAvailable(player, this.lobbyOnly));
+
+        // Staying in the same world changes nothing.
+        assertFalse(this.index.update(player));
+
+        final World lobby = mockWorld("lobby");
+        when(player.getWorld()).thenReturn(lobby);
+        assertFalse(this.index.isAvailable(player, this.lobbyOnly));
+        assertTrue(this.index.update(player));
+        assertTrue(this.index.isAvailable(player, this.lobbyOnly));
+    }
+
+    @Test
+    void removedPlayersAreIndexedAgain() {
+        final Player player = mockPlayer("survival");
+        assertFalse(this.index.isAvailable(player, this.vipOnly));
+
+        when(player.hasPermission("group.vip")).thenReturn(true);
+        this.index.remove(player);
+        assertTrue(this.index.isAvailable(player, this.vipOnly));
+    }
+
+    /**
+     * Creates an action with a given id and restrictions.
+     * @param id Id of the action.
+     * @param worlds Worlds the action is limited to.
+     * @param groups Groups the action is limited to.
+     * @return Mocked action.
+     */
+    private static Action mockAction(final int id, final String[] worlds, final String[] groups) {
+        final Action action = TestFixtures.mockAction("action" + id);
+        when(action.getId()).thenReturn(id);
+        when(action.getWorlds()).thenReturn(worlds);
+        when(action.getGroups()).thenReturn(groups);
+        return action;
+    }
+
+    /**
+     * Creates a player in a given world.
+     * @param world Name of the world the player is in.
+     * @param groups Groups the player is in.
+     * @return Mocked player.
+     */
+    private static Player mockPlayer(final String world, final String... groups) {
+        final Player player = TestFixtures.mockPlayer("Player", mockWorld(world));
+        for(final String group : groups) {
+            when(player.hasPermission("group." + group)).thenReturn(true);
+        }
+        return player;
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.actions;
+
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.platform.bukkit.BukkitAudiences;
+import net.kyori.adventure.text.Component;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandMap;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * A stand-in for the parts of a server that action commands use, with any number of fake players.
+ * Players, worlds and the server are dynamic proxies rather than mocks, so a load test measures the plugin
+ * instead of the mocking library. Every message sent to a player is counted, along with how many times one was translated.
+ */
+class FakeServer {
+    private final List<Player> players = new ArrayList<>();
+    private final Map<String, Player> playersByName = new HashMap<>();
+    private final Map<String, Command> commands = new HashMap<>();
+    private final Logger logger = Logger.getLogger("FakeServer");
+    private final Server server;
+    private final BukkitAudiences audiences;
+    private final CommandMap commandMap;
+    private long messages = 0;
+    private long components = 0;
+    private Component lastComponent = null;
+
+    /**
+     * Creates the server.
+     * Players are spread evenly over the given worlds and locales.
+     * @param playerCount Number of online players.
+     * @param worldNames Names of the worlds players are in.
+     * @param locales Client locales of the players.
+     * @param groupEvery Every how many players is in the "vip" group.
+     */
+    FakeServer(final int playerCount, @NotNull final String[] worldNames, @NotNull final String[] locales, final int groupEvery) {
+        final Map<String, List<Player>> worldPlayers = new HashMap<>();
+        final World[] worlds = new World[worldNames.length];
+        for(int i = 0; i < worlds.length; i++) {
+            final List<Player> inWorld = new ArrayList<>();
+            worldPlayers.put(worldNames[i], inWorld);
+            worlds[i] = createWorld(worldNames[i], Collections.unmodifiableList(inWorld));
+        }
+
+        for(int i = 0; i < playerCount; i++) {
+            final String name = "Player" + i;
+            final World world = worlds[i % worlds.length];
+            final Set<String> permissions = i % groupEvery == 0 ? Set.of("group.vip") : Set.of();
+            final Player player = createPlayer(name, new UUID(0, i), locales[i % locales.length], world, permissions);
+
+            this.players.add(player);
+            this.playersByName.put(name.toLowerCase(Locale.ROOT), player);
+            worldPlayers.get(world.getName()).add(player);
+        }
+
+        final Audience audience = new Audience() {
+            @Override
+            public void sendMessage(@NotNull final Component message) {
+                messages++;
+
+                // A component sent to several players in a row was only translated once.
+                if(message != lastComponent) {
+                    components++;
+                    lastComponent = message;
+                }
+            }
+        };
+
+        this.audiences = proxy(BukkitAudiences.class, (proxy, method, args) -> switch (method.getName()) {
+            case "sender", "player", "all", "players" -> audience;
+            default -> defaultValue(method.getReturnType());
+        });
+
+        this.commandMap = proxy(CommandMap.class, (proxy, method, args) -> switch (method.getName()) {
+            case "register" -> {
+                final Command command = (Command) args[args.length - 1];
+                this.commands.put(command.getName(), command);
+                yield true;
+            }
+            case "getCommand" -> this.commands.get((String) args[0]);
+            default -> defaultValue(method.getReturnType());
+        });
+
+        // Tasks run straight away, on the calling thread.
+        final BukkitScheduler scheduler = proxy(BukkitScheduler.class, (proxy, method, args) -> {
+            if(method.getName().startsWith("runTask") && args.length > 1 && args[1] instanceof Runnable runnable) {
+                runnable.run();
+            }
+            return defaultValue(method.getReturnType());
+        });
+
+        final List<Player> onlinePlayers = Collections.unmodifiableList(this.players);
+        this.server = proxy(Server.class, (proxy, method, args) -> switch (method.getName()) {
+            case "getPlayer", "getPlayerExact" -> args[0] instanceof String name ? this.playersByName.get(name.toLowerCase(Locale.ROOT)) : null;
+            case "getOnlinePlayers" -> onlinePlayers;
+            case "getScheduler" -> scheduler;
+            case "getLogger" -> this.logger;
+            case "getWorlds" -> List.of(worlds);
+            case "getBukkitVersion" -> "1.20.4-R0.1-SNAPSHOT";
+            default -> defaultValue(method.getReturnType());
+        });
+    }
+
+    /**
+     * Gets the adventure instance that counts messages sent to players.
+     * @return Fake adventure instance.
+     */
+    @NotNull
+    BukkitAudiences getAudiences() {
+        return this.audiences;
+    }
+
+    /**
+     * Gets a command registered through the command map.
+     * @param name Name of the command.
+     * @return Registered command, null if there isn't one.
+     */
+    Command getCommand(@NotNull final String name) {
+        return this.commands.get(name);
+    }
+
+    /**
+     * Gets the command map commands are registered to.
+     * @return Fake command map.
+     */
+    @NotNull
+    CommandMap getCommandMap() {
+        return this.commandMap;
+    }
+
+    /**
+     * Gets the number of separately translated messages sent to players so far.
+     * @return Translated messages.
+     */
+    long getComponents() {
+        return this.components;
+    }
+
+    /**
+     * Gets the number of messages sent to players so far.
+     * @return Sent messages.
+     */
+    long getMessages() {
+        return this.messages;
+    }
+
+    /**
+     * Gets every online player.
+     * @return Online players.
+     */
+    @NotNull
+    List<Player> getPlayers() {
+        return this.players;
+    }
+
+    /**
+     * Gets the fake server.
+     * @return Fake server.
+     */
+    @NotNull
+    Server getServer() {
+        return this.server;
+    }
+
+    /**
+     * Creates a fake player.
+     * @param name Name of the player.
+     * @param uuid UUID of the player.
+     * @param locale Client locale of the player.
+     * @param world World the player is in.
+     * @param permissions Permissions the player has.
+     * @return Fake player.
+     */
+    @NotNull
+    private static Player createPlayer(@NotNull final String name, @NotNull final UUID uuid, @NotNull final String locale, @NotNull final World world,
+                                       @NotNull final Set<String> permissions) {
+        return proxy(Player.class, (proxy, method, args) -> switch (method.getName()) {
+            case "getName", "getDisplayName", "toString" -> name;
+            case "getUniqueId" -> uuid;
+            case "getLocale" -> locale;
+            case "getWorld" -> world;
+            case "hasPermission" -> args[0] instanceof String permission && permissions.contains(permission);
+            case "isOnline", "canSee" -> true;
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> uuid.hashCode();
+            default -> defaultValue(method.getReturnType());
+        });
+    }
+
+    /**
+     * Creates a fake world.
+     * @param name Name of the world.
+     * @param players Players in the world.
+     * @return Fake world.
+     */
+    @NotNull
+    private static World createWorld(@NotNull final String name, @NotNull final List<Player> players) {
+        return proxy(World.class, (proxy, method, args) -> switch (method.getName()) {
+            case "getName", "toString" -> name;
+            case "getPlayers" -> players;
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> name.hashCode();
+            default -> defaultValue(method.getReturnType());
+        });
+    }
+
+    /**
+     * Gets the value a method with nothing to return should return.
+     * @param type Return type of the method.
+     * @return Zero, false or null.
+     */
+    private static Object defaultValue(@NotNull final Class<?> type) {
+        if(type == boolean.class) {
+            return false;
+        }
+        if(type == int.class) {
+            return 0;
+        }
+        if(type == long.class) {
+            return 0L;
+        }
+        if(type == double.class) {
+            return 0.0;
+        }
+        if(type == float.class) {
+            return 0.0f;
+        }
+        if(type == short.class) {
+            return (short) 0;
+        }
+        if(type == byte.class) {
+            return (byte) 0;
+        }
+        if(type == char.class) {
+            return (char) 0;
+        }
+
+        return null;
+    }
+
+    /**
+     * Creates a dynamic proxy of an interface.
+     * @param type Interface to implement.
+     * @param handler Handles every method call.
+     * @return Proxy instance.
+     * @param <T> Type of the interface.
+     */
+    @NotNull
+    private static <T> T proxy(@NotNull final Class<T> type, @NotNull final InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(FakeServer.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+}
\ No newline at end of file
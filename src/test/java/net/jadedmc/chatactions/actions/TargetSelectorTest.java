@@ -0,0 +1,190 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.actions;
+
+import me.clip.placeholderapi.PlaceholderAPI;
+import net.jadedmc.chatactions.HookManager;
+import net.jadedmc.chatactions.TestFixtures;
+import org.bukkit.Location;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests resolving target selectors into the players they match.
+ */
+class TargetSelectorTest {
+    private static final String PARTY_PLACEHOLDER = "%parties_party%";
+
+    private final Server server = mock(Server.class);
+    private final World world = TestFixtures.mockWorld("world");
+    private final List<Player> players = new ArrayList<>();
+    private final Player sender = addPlayer("Sender", 0);
+
+    @Test
+    void nearestReturnsTheClosestPlayersInOrder() {
+        final Player far = addPlayer("Far", 30);
+        final Player close = addPlayer("Close", 5);
+        final Player middle = addPlayer("Middle", 10);
+
+        assertEquals(List.of(close, middle), select("@nearest:2"));
+        assertEquals(List.of(close, middle, far), select("@nearest:5"));
+    }
+
+    @Test
+    void radiusOnlyMatchesPlayersInRange() {
+        final Player inside = addPlayer("Inside", 10);
+        addPlayer("Outside", 11);
+
+        assertEquals(List.of(inside), select("@radius:10"));
+    }
+
+    @Test
+    void hiddenPlayersAreNeverSelected() {
+        final Player visible = addPlayer("Visible", 5);
+        final Player hidden = addPlayer("Hidden", 1);
+        when(this.sender.canSee(hidden)).thenReturn(false);
+
+        assertEquals(List.of(visible), select("@world"));
+        assertEquals(List.of(visible), select("@nearest:1"));
+    }
+
+    @Test
+    void selectorsIgnoreCase() {
+        final Player player = addPlayer("Player", 5);
+
+        assertEquals(List.of(player), select("@WORLD"));
+        assertEquals(List.of(player), select("@Nearest:1"));
+    }
+
+    @Test
+    void invalidSelectorsAreRejected() {
+        final TargetSelector targetSelector = new TargetSelector(mockHookManager(false), selectorConfig(Map.of("max-radius", 20)));
+
+        assertThrows(IllegalArgumentException.class, () -> targetSelector.select(this.sender, "@everyone"));
+        assertThrows(IllegalArgumentException.class, () -> targetSelector.select(this.sender, "@nearest"));
+        assertThrows(IllegalArgumentException.class, () -> targetSelector.select(this.sender, "@nearest:many"));
+        assertThrows(IllegalArgumentException.class, () -> targetSelector.select(this.sender, "@radius:21"));
+        assertThrows(IllegalArgumentException.class, () -> targetSelector.select(this.sender, "@radius:0"));
+    }
+
+    @Test
+    void partyMatchesPlayersWithTheSamePlaceholderValue() {
+        final Player friend = addPlayer("Friend", 5);
+        final Player stranger = addPlayer("Stranger", 5);
+        final Player loner = addPlayer("Loner", 5);
+        final Map<Player, String> parties = Map.of(this.sender, "red", friend, "red", stranger, "blue", loner, "");
+
+        when(this.server.getOnlinePlayers()).thenAnswer(invocation -> this.players);
+
+        try(final MockedStatic<PlaceholderAPI> placeholderAPI = mockStatic(PlaceholderAPI.class)) {
+            placeholderAPI.when(() -> PlaceholderAPI.setPlaceholders(any(OfflinePlayer.class), eq(PARTY_PLACEHOLDER))).thenAnswer(invocation -> parties.get(invocation.<Player>getArgument(0)));
+            final TargetSelector targetSelector = new TargetSelector(mockHookManager(true), selectorConfig(Map.of("party-placeholder", PARTY_PLACEHOLDER)));
+
+            assertEquals(List.of(friend), new ArrayList<>(targetSelector.select(this.sender, "@party")));
+            assertTrue(targetSelector.select(friend, "@party").contains(this.sender));
+
+            // Players without a party can't use the selector.
+            assertThrows(IllegalArgumentException.class, () -> targetSelector.select(loner, "@party"));
+        }
+    }
+
+    @Test
+    void partyNeedsPlaceholderAPIAndAPlaceholder() {
+        final TargetSelector withoutPlaceholderAPI = new TargetSelector(mockHookManager(false), selectorConfig(Map.of("party-placeholder", PARTY_PLACEHOLDER)));
+        final TargetSelector withoutPlaceholder = new TargetSelector(mockHookManager(true), null);
+
+        assertThrows(IllegalArgumentException.class, () -> withoutPlaceholderAPI.select(this.sender, "@party"));
+        assertThrows(IllegalArgumentException.class, () -> withoutPlaceholder.select(this.sender, "@party"));
+    }
+
+    /**
+     * Resolves a selector for the sender using the default settings.
+     * @param selector Selector to resolve.
+     * @return Matched players, in the order they were selected.
+     */
+    private List<Player> select(final String selector) {
+        final Collection<Player> selected = new TargetSelector(mockHookManager(false), null).select(this.sender, selector);
+        return new ArrayList<>(selected);
+    }
+
+    /**
+     * Creates a player in the test world, a given distance along the x axis from the sender.
+     * Every player can see every other player unless a test says otherwise.
+     * @param name Name of the player.
+     * @param x Distance from the sender in blocks.
+     * @return Mocked player.
+     */
+    private Player addPlayer(final String name, final double x) {
+        final Player player = TestFixtures.mockPlayer(name, this.world);
+        when(player.getLocation()).thenReturn(new Location(this.world, x, 64, 0));
+        when(player.canSee(any(Player.class))).thenReturn(true);
+        when(player.getServer()).thenReturn(this.server);
+
+        this.players.add(player);
+        when(this.world.getPlayers()).thenReturn(List.copyOf(this.players));
+        return player;
+    }
+
+    /**
+     * Creates a hook manager.
+     * @param placeholderAPI Whether PlaceholderAPI is installed.
+     * @return Mocked hook manager.
+     */
+    private static HookManager mockHookManager(final boolean placeholderAPI) {
+        final HookManager hookManager = mock(HookManager.class);
+        when(hookManager.usePlaceholderAPI()).thenReturn(placeholderAPI);
+        return hookManager;
+    }
+
+    /**
+     * Creates the selector settings.
+     * @param settings Settings to change from their defaults.
+     * @return Selector settings.
+     */
+    private static YamlConfiguration selectorConfig(final Map<String, Object> settings) {
+        final YamlConfiguration config = new YamlConfiguration();
+        settings.forEach(config::set);
+        return config;
+    }
+}
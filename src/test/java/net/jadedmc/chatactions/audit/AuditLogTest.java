@@ -0,0 +1,172 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.audit;
+
+import net.jadedmc.chatactions.ChatActionsPlugin;
+import net.jadedmc.chatactions.actions.Action;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static net.jadedmc.chatactions.TestFixtures.mockAction;
+import static net.jadedmc.chatactions.TestFixtures.mockPlayer;
+import static net.jadedmc.chatactions.TestFixtures.mockPlugin;
+
+/**
+ * Tests the audit log's ring buffer and the files its writer produces.
+ */
+class AuditLogTest {
+    @TempDir
+    File folder;
+
+    @Test
+    void writesEveryEventInOrder() throws IOException {
+        final AuditLog auditLog = new AuditLog(mockEnabledPlugin(false, 16));
+        final Action action = mockAction("wave");
+        final Player target = mockPlayer("Target");
+
+        for(int i = 0; i < 10; i++) {
+            auditLog.log(action, mockPlayer("Sender" + i), i % 2 == 0 ? target : null);
+        }
+        auditLog.shutdown();
+
+        final List<String> lines = readLines();
+        assertEquals(10, lines.size());
+        assertEquals(10, auditLog.getWritten());
+        assertEquals(0, auditLog.getPending());
+        for(int i = 0; i < 10; i++) {
+            final String[] fields = lines.get(i).split("\t");
+            assertEquals("Sender" + i, fields[1]);
+            assertEquals("wave", fields[2]);
+            assertEquals(i % 2 == 0 ? "Target" : "*", fields[3]);
+        }
+    }
+
+    @Test
+    void wrapsAroundWithoutLosingOrReorderingEvents() throws IOException {
+        // A 16 slot buffer wraps many times, and may drop events if the writer falls behind.
+        final AuditLog auditLog = new AuditLog(mockEnabledPlugin(false, 16));
+        final Action action = mockAction("wave");
+        final List<Player> senders = new ArrayList<>();
+        for(int i = 0; i < 2000; i++) {
+            senders.add(mockPlayer(String.valueOf(i)));
+        }
+
+        for(final Player sender : senders) {
+            auditLog.log(action, sender, null);
+        }
+        auditLog.shutdown();
+
+        // Every event is either written or counted as dropped.
+        final List<String> lines = readLines();
+        assertEquals(2000, auditLog.getWritten() + auditLog.getDropped());
+        assertEquals(auditLog.getWritten(), lines.size());
+
+        // Written events keep the order they were logged in.
+        int previous = -1;
+        for(final String line : lines) {
+            final int sender = Integer.parseInt(line.split("\t")[1]);
+            assertTrue(sender > previous);
+            previous = sender;
+        }
+    }
+
+    @Test
+    void compressedLogsCanBeRead() throws IOException {
+        final AuditLog auditLog = new AuditLog(mockEnabledPlugin(true, 64));
+        auditLog.log(mockAction("hug"), mockPlayer("Alice"), mockPlayer("Bob"));
+        auditLog.shutdown();
+
+        final File[] files = new File(this.folder, "audit").listFiles();
+        assertEquals(1, files.length);
+        assertTrue(files[0].getName().endsWith(".log.gz"));
+        assertTrue(readLines().get(0).endsWith("\tAlice\thug\tBob"));
+    }
+
+    @Test
+    void disabledLogDoesNothing() {
+        final YamlConfiguration config = new YamlConfiguration();
+        config.set("audit-log.enabled", false);
+
+        final AuditLog auditLog = new AuditLog(mockPlugin(config, this.folder));
+        auditLog.log(mockAction("wave"), mockPlayer("Alice"), null);
+        auditLog.shutdown();
+
+        assertFalse(auditLog.isEnabled());
+        assertEquals(0, auditLog.getPending());
+        assertFalse(new File(this.folder, "audit").exists());
+    }
+
+    /**
+     * Reads every line of every audit log file.
+     * @return Logged lines.
+     * @throws IOException If a file could not be read.
+     */
+    private List<String> readLines() throws IOException {
+        final List<String> lines = new ArrayList<>();
+
+        for(final File file : new File(this.folder, "audit").listFiles()) {
+            InputStream input = Files.newInputStream(file.toPath());
+            if(file.getName().endsWith(".gz")) {
+                input = new GZIPInputStream(input);
+            }
+
+            try(final BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+                reader.lines().forEach(lines::add);
+            }
+        }
+
+        return lines;
+    }
+
+    /**
+     * Creates a plugin with an enabled audit log.
+     * @param compress Whether log files should be compressed.
+     * @param bufferSize Size of the ring buffer.
+     * @return Mocked plugin.
+     */
+    private ChatActionsPlugin mockEnabledPlugin(final boolean compress, final int bufferSize) {
+        final YamlConfiguration config = new YamlConfiguration();
+        config.set("audit-log.enabled", true);
+        config.set("audit-log.compress", compress);
+        config.set("audit-log.buffer-size", bufferSize);
+        return mockPlugin(config, this.folder);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.messages;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests picking a message for a player's locale, falling back from region to language to the default.
+ */
+class LocalizedMessageTest {
+    private final WeightedMessage english = WeightedMessage.single("Hello %target%!");
+    private final WeightedMessage portuguese = WeightedMessage.single("Olá %target%!");
+    private final WeightedMessage brazilian = WeightedMessage.single("Oi %target%!");
+    private final LocalizedMessage message = new LocalizedMessage(this.english, Map.of("pt", this.portuguese, "pt_br", this.brazilian));
+
+    @Test
+    void exactLocalesWinOverTheirLanguage() {
+        assertSame(this.brazilian, this.message.get("pt_br"));
+        assertSame(this.portuguese, this.message.get("pt_pt"));
+        assertSame(this.portuguese, this.message.get("pt"));
+    }
+
+    @Test
+    void otherLocalesUseTheDefault() {
+        assertSame(this.english, this.message.get("de_de"));
+        assertSame(this.english, this.message.get("en_us"));
+        assertSame(this.english, this.message.get(null));
+        assertSame(this.english, new LocalizedMessage(this.english, Map.of()).get("pt_br"));
+    }
+
+    @Test
+    void onlyEmptyWhenEveryLocaleIsEmpty() {
+        final WeightedMessage empty = WeightedMessage.single("");
+
+        assertTrue(new LocalizedMessage(empty, Map.of()).isEmpty());
+        assertTrue(new LocalizedMessage(empty, Map.of("de", empty)).isEmpty());
+        assertFalse(new LocalizedMessage(empty, Map.of("de", this.english)).isEmpty());
+        assertFalse(this.message.isEmpty());
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.messages;
+
+import net.jadedmc.chatactions.utils.ChatUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that the pool shares templates, and only translates messages that are the same for everyone ahead of time.
+ */
+class MessagePoolTest {
+    @AfterEach
+    void tearDown() {
+        MessagePool.clear();
+    }
+
+    @Test
+    void sameTextSharesOneTemplate() {
+        assertSame(MessagePool.template("<red>No permission!"), MessagePool.template("<red>No permission!"));
+        assertSame(MessagePool.single("<red>No permission!"), MessagePool.single("<red>No permission!"));
+        assertSame(MessagePool.template("<red>No permission!"), MessagePool.single("<red>No permission!").pick());
+
+        assertEquals(1, MessagePool.getTemplateCount());
+        assertEquals(1, MessagePool.getSingleCount());
+        assertEquals(6, MessagePool.getRequests());
+    }
+
+    @Test
+    void messagesWithoutPlaceholdersShareOneComponent() {
+        final MessageTemplate template = MessagePool.template("<red>Usage: /wave [player]");
+        assertTrue(template.isFixed());
+        assertEquals(0, MessagePool.getComponentCount());
+
+        // The component is only translated once it is first sent.
+        assertSame(MessagePool.component(template.render("Alice", "Bob")), MessagePool.component("<red>Usage: /wave [player]"));
+        assertEquals(ChatUtils.translate("<red>Usage: /wave [player]"), MessagePool.component(template.getSource()));
+        assertEquals(1, MessagePool.getComponentCount());
+        assertEquals(1, MessagePool.getFixedCount());
+    }
+
+    @Test
+    void messagesWithPlaceholdersAreNotTranslatedAhead() {
+        final MessageTemplate sender = MessagePool.template("<gray>You wave to %target%.");
+        final MessageTemplate placeholder = MessagePool.template("<gray>Your rank is %vault_rank%.");
+
+        assertFalse(sender.isFixed());
+        assertFalse(placeholder.isFixed());
+        assertNull(sender.getComponent());
+        assertNull(MessagePool.component("<gray>Your rank is %vault_rank%."));
+        assertNull(MessagePool.component("<gray>A message that was never pooled."));
+        assertEquals(0, MessagePool.getFixedCount());
+    }
+
+    @Test
+    void lonePercentSignsDontCountAsPlaceholders() {
+        final MessageTemplate template = MessagePool.template("<gold>Server is 100% ready!");
+
+        assertTrue(template.isFixed());
+        assertNotNull(MessagePool.component("<gold>Server is 100% ready!"));
+    }
+
+    @Test
+    void retainedCharsCountEveryTemplate() {
+        MessagePool.template("abc");
+        MessagePool.template("abc");
+        MessagePool.template("a %sender% b");
+
+        // "abc", plus "a %sender% b" and its two literal parts.
+        assertEquals(3 + 12 + 4, MessagePool.getRetainedChars());
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.messages;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests rendering compiled messages with their %sender% and %target% placeholders filled in.
+ */
+class MessageTemplateTest {
+    @Test
+    void fillsInEveryPlaceholder() {
+        final MessageTemplate template = new MessageTemplate("<gray>%sender% waves at %target%, and %target% waves back at %sender%!");
+
+        assertEquals("<gray>Alice waves at Bob, and Bob waves back at Alice!", template.render("Alice", "Bob"));
+    }
+
+    @Test
+    void placeholdersAtTheEdgesAndNextToEachOther() {
+        assertEquals("AliceBob", new MessageTemplate("%sender%%target%").render("Alice", "Bob"));
+        assertEquals("Bob hugs you", new MessageTemplate("%target% hugs you").render("Alice", "Bob"));
+        assertEquals("Hugged by Alice", new MessageTemplate("Hugged by %sender%").render("Alice", "Bob"));
+    }
+
+    @Test
+    void messagesWithoutPlaceholdersAreNotCopied() {
+        final MessageTemplate template = new MessageTemplate("<red>You cannot use that here!");
+
+        assertSame(template.getSource(), template.render("Alice", "Bob"));
+        assertTrue(template.isFixed());
+    }
+
+    @Test
+    void namesThatLookLikePlaceholdersAreNotReplacedAgain() {
+        final MessageTemplate template = new MessageTemplate("%sender% pokes %target%");
+
+        assertEquals("%target% pokes Bob", template.render("%target%", "Bob"));
+    }
+
+    @Test
+    void otherPlaceholdersAreLeftForPlaceholderAPI() {
+        final MessageTemplate template = new MessageTemplate("%sender% is %vault_rank%");
+
+        assertEquals("Alice is %vault_rank%", template.render("Alice", "Bob"));
+        assertFalse(template.isFixed());
+        assertFalse(new MessageTemplate("Rank: %vault_rank%").isFixed());
+        assertTrue(new MessageTemplate("100% sure").isFixed());
+    }
+
+    @Test
+    void emptyMessagesStayEmpty() {
+        final MessageTemplate template = new MessageTemplate("");
+
+        assertTrue(template.isEmpty());
+        assertEquals("", template.render("Alice", "Bob"));
+    }
+}
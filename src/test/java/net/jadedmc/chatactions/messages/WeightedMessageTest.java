@@ -0,0 +1,148 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.messages;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that the alias table picks each variant as often as its weight says it should.
+ */
+class WeightedMessageTest {
+    private static final int SAMPLES = 200_000;
+
+    @AfterEach
+    void tearDown() {
+        MessagePool.clear();
+    }
+
+    @Test
+    void picksVariantsInProportionToTheirWeights() {
+        final MessageTemplate[] variants = templates("a", "b", "c", "d");
+        final double[] weights = {1, 2, 3, 14};
+        final Map<MessageTemplate, Integer> counts = sample(new WeightedMessage(variants, weights));
+
+        for(int i = 0; i < variants.length; i++) {
+            assertShare(weights[i] / 20, counts.getOrDefault(variants[i], 0), variants[i].getSource());
+        }
+    }
+
+    @Test
+    void evenWeightsPickEveryVariantEqually() {
+        final MessageTemplate[] variants = templates("a", "b", "c");
+        final Map<MessageTemplate, Integer> counts = sample(new WeightedMessage(variants, new double[]{5, 5, 5}));
+
+        for(final MessageTemplate variant : variants) {
+            assertShare(1.0 / 3, counts.getOrDefault(variant, 0), variant.getSource());
+        }
+    }
+
+    @Test
+    void tinyWeightsAreStillPicked() {
+        final MessageTemplate[] variants = templates("common", "rare");
+        final Map<MessageTemplate, Integer> counts = sample(new WeightedMessage(variants, new double[]{99, 1}));
+
+        assertShare(0.01, counts.getOrDefault(variants[1], 0), "rare");
+    }
+
+    @Test
+    void singleVariantIsAlwaysPicked() {
+        final MessageTemplate[] variants = templates("only");
+        final WeightedMessage message = new WeightedMessage(variants, new double[]{3});
+
+        for(int i = 0; i < 100; i++) {
+            assertSame(variants[0], message.pick());
+        }
+    }
+
+    @Test
+    void emptyOnlyWhenEveryVariantIsEmpty() {
+        assertTrue(new WeightedMessage(templates("", ""), new double[]{1, 1}).isEmpty());
+        assertFalse(new WeightedMessage(templates("", "hi"), new double[]{1, 1}).isEmpty());
+    }
+
+    @Test
+    void loadsWeightsFromTheConfig() {
+        final YamlConfiguration config = new YamlConfiguration();
+        config.set("message", List.of(Map.of("text", "heavy", "weight", 3), "light", Map.of("text", "never", "weight", 0)));
+
+        final Map<String, Integer> counts = new HashMap<>();
+        for(final Map.Entry<MessageTemplate, Integer> entry : sample(WeightedMessage.load(config, "message")).entrySet()) {
+            counts.put(entry.getKey().getSource(), entry.getValue());
+        }
+
+        assertEquals(2, counts.size());
+        assertShare(0.75, counts.get("heavy"), "heavy");
+        assertShare(0.25, counts.get("light"), "light");
+    }
+
+    /**
+     * Compiles a list of messages.
+     * @param messages Message texts.
+     * @return Compiled templates.
+     */
+    private static MessageTemplate[] templates(final String... messages) {
+        final MessageTemplate[] templates = new MessageTemplate[messages.length];
+        for(int i = 0; i < messages.length; i++) {
+            templates[i] = new MessageTemplate(messages[i]);
+        }
+        return templates;
+    }
+
+    /**
+     * Picks from a message many times.
+     * @param message Message to pick from.
+     * @return Number of times each variant was picked.
+     */
+    private static Map<MessageTemplate, Integer> sample(final WeightedMessage message) {
+        final Map<MessageTemplate, Integer> counts = new HashMap<>();
+        for(int i = 0; i < SAMPLES; i++) {
+            counts.merge(message.pick(), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * Checks that a variant was picked about as often as expected.
+     * Allows five standard deviations either way, so the test should practically never fail by chance.
+     * @param expected Expected share of the picks.
+     * @param count Number of times the variant was picked.
+     * @param name Name of the variant, for the failure message.
+     */
+    private static void assertShare(final double expected, final int count, final String name) {
+        final double deviation = Math.sqrt(SAMPLES * expected * (1 - expected));
+        assertEquals(SAMPLES * expected, count, 5 * deviation, "Picks of " + name);
+    }
+}
\ No newline at end of file
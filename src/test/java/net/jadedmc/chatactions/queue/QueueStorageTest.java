@@ -0,0 +1,189 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.queue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the append-only queue file, its delivery tombstones, and compaction.
+ */
+class QueueStorageTest {
+    private static final UUID FIRST = new UUID(1, 1);
+    private static final UUID SECOND = new UUID(2, 2);
+
+    @TempDir
+    File folder;
+
+    private File file;
+    private QueueStorage storage;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.file = new File(this.folder, "pending.dat");
+        this.storage = new QueueStorage(this.file);
+        this.storage.open();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        this.storage.close();
+    }
+
+    @Test
+    void readsActionsInTheOrderTheyWereQueued() throws IOException {
+        this.storage.append(new QueuedAction(FIRST, "wave", "Alice", 1));
+        this.storage.append(new QueuedAction(SECOND, "hug", "Bob", 2));
+        this.storage.append(new QueuedAction(FIRST, "hug", "Carol", 3));
+
+        final List<QueuedAction> queuedActions = this.storage.read(FIRST);
+        assertEquals(2, queuedActions.size());
+        assertEquals("wave", queuedActions.get(0).getActionName());
+        assertEquals("Alice", queuedActions.get(0).getSenderName());
+        assertEquals(1, queuedActions.get(0).getTimestamp());
+        assertEquals("Carol", queuedActions.get(1).getSenderName());
+        assertTrue(this.storage.read(new UUID(3, 3)).isEmpty());
+    }
+
+    @Test
+    void clearOnlyRemovesTheOldestActions() throws IOException {
+        this.storage.append(new QueuedAction(FIRST, "wave", "Alice", 1));
+        this.storage.append(new QueuedAction(FIRST, "wave", "Bob", 2));
+        this.storage.append(new QueuedAction(FIRST, "wave", "Carol", 3));
+
+        this.storage.clear(FIRST, 2);
+
+        final List<QueuedAction> queuedActions = this.storage.read(FIRST);
+        assertEquals(1, queuedActions.size());
+        assertEquals("Carol", queuedActions.get(0).getSenderName());
+    }
+
+    @Test
+    void tombstonesAreReplayedWhenReopened() throws IOException {
+        this.storage.append(new QueuedAction(FIRST, "wave", "Alice", 1));
+        this.storage.append(new QueuedAction(FIRST, "wave", "Bob", 2));
+        this.storage.append(new QueuedAction(SECOND, "hug", "Carol", 3));
+        this.storage.clear(FIRST, 1);
+        this.storage.clear(SECOND, 1);
+        this.storage.close();
+
+        this.storage = new QueueStorage(this.file);
+        final Map<UUID, Integer> counts = this.storage.open();
+
+        assertEquals(Map.of(FIRST, 1), counts);
+        assertEquals("Bob", this.storage.read(FIRST).get(0).getSenderName());
+    }
+
+    @Test
+    void compactionKeepsPendingActionsAndShrinksTheFile() throws IOException {
+        for(int i = 0; i < 100; i++) {
+            this.storage.append(new QueuedAction(FIRST, "wave", "Sender" + i, i));
+        }
+        this.storage.append(new QueuedAction(SECOND, "hug", "Alice", 100));
+        this.storage.append(new QueuedAction(SECOND, "wave", "Bob", 101));
+        this.storage.clear(FIRST, 100);
+
+        assertTrue(this.storage.needsCompaction());
+        final long sizeBefore = this.file.length();
+        this.storage.compact();
+
+        assertFalse(this.storage.needsCompaction());
+        assertTrue(this.file.length() < sizeBefore);
+        assertTrue(this.storage.read(FIRST).isEmpty());
+        assertEquals("Bob", this.storage.read(SECOND).get(1).getSenderName());
+
+        // New actions are appended after the compacted records.
+        this.storage.append(new QueuedAction(FIRST, "wave", "Carol", 102));
+        this.storage.close();
+
+        this.storage = new QueueStorage(this.file);
+        assertEquals(Map.of(FIRST, 1, SECOND, 2), this.storage.open());
+        assertEquals("Alice", this.storage.read(SECOND).get(0).getSenderName());
+        assertEquals("Carol", this.storage.read(FIRST).get(0).getSenderName());
+    }
+
+    @Test
+    void failedCompactionLeavesTheQueueUsable() throws IOException {
+        for(int i = 0; i < 100; i++) {
+            this.storage.append(new QueuedAction(FIRST, "wave", "Sender" + i, i));
+        }
+        this.storage.append(new QueuedAction(SECOND, "hug", "Alice", 100));
+        this.storage.clear(FIRST, 100);
+
+        // A directory in the way makes the compacted copy impossible to write.
+        final File compactedFile = new File(this.folder, "pending.dat.compact");
+        assertTrue(compactedFile.mkdir());
+        assertThrows(IOException.class, this.storage::compact);
+
+        assertFalse(compactedFile.exists());
+        assertTrue(this.storage.needsCompaction());
+        this.storage.append(new QueuedAction(SECOND, "wave", "Bob", 101));
+        assertEquals("Bob", this.storage.read(SECOND).get(1).getSenderName());
+
+        // The next attempt still works once the path is free.
+        this.storage.compact();
+        assertEquals(2, this.storage.read(SECOND).size());
+    }
+
+    @Test
+    void smallQueuesAreNotCompacted() throws IOException {
+        this.storage.append(new QueuedAction(FIRST, "wave", "Alice", 1));
+        this.storage.clear(FIRST, 1);
+
+        assertFalse(this.storage.needsCompaction());
+    }
+
+    @Test
+    void partiallyWrittenRecordIsDroppedWhenReopened() throws IOException {
+        this.storage.append(new QueuedAction(FIRST, "wave", "Alice", 1));
+        this.storage.close();
+        final long validSize = this.file.length();
+
+        // Simulates a crash part way through writing a record.
+        Files.write(this.file.toPath(), new byte[]{0, 0, 0, 50, 0, 1, 2}, StandardOpenOption.APPEND);
+
+        this.storage = new QueueStorage(this.file);
+        assertEquals(Map.of(FIRST, 1), this.storage.open());
+        assertEquals(validSize, this.file.length());
+
+        this.storage.append(new QueuedAction(FIRST, "hug", "Bob", 2));
+        assertEquals("Bob", this.storage.read(FIRST).get(1).getSenderName());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,136 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.reciprocal;
+
+import net.jadedmc.chatactions.ChatActionsPlugin;
+import net.jadedmc.chatactions.actions.Action;
+import net.jadedmc.chatactions.utils.TimingWheel;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.Test;
+
+import static net.jadedmc.chatactions.TestFixtures.mockAction;
+import static net.jadedmc.chatactions.TestFixtures.mockPlayer;
+import static net.jadedmc.chatactions.TestFixtures.mockPlugin;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests that reciprocal requests are completed once, expire on time, and are cleaned up when players leave.
+ */
+class ReciprocalManagerTest {
+    private final TimingWheel timingWheel = new TimingWheel(64);
+    private final ReciprocalManager reciprocalManager = new ReciprocalManager(mockTimingPlugin(this.timingWheel));
+    private final Action highFive = mockReciprocalAction("highfive", 2);
+    private final Player alice = mockPlayer("Alice");
+    private final Player bob = mockPlayer("Bob");
+
+    @Test
+    void onlyTheTargetCanCompleteARequest() {
+        this.reciprocalManager.request(this.highFive, this.alice, this.bob);
+
+        // The sender can't return their own request.
+        assertFalse(this.reciprocalManager.complete(this.highFive, this.alice, this.bob));
+        assertFalse(this.reciprocalManager.complete(mockReciprocalAction("hug", 2), this.bob, this.alice));
+
+        assertTrue(this.reciprocalManager.complete(this.highFive, this.bob, this.alice));
+        assertFalse(this.reciprocalManager.complete(this.highFive, this.bob, this.alice));
+        assertEquals(0, this.reciprocalManager.getPending());
+    }
+
+    @Test
+    void requestsExpireAfterTheirTimeout() {
+        this.reciprocalManager.request(this.highFive, this.alice, this.bob);
+
+        tick(39);
+        assertEquals(1, this.reciprocalManager.getPending());
+
+        tick(1);
+        assertEquals(0, this.reciprocalManager.getPending());
+        assertFalse(this.reciprocalManager.complete(this.highFive, this.bob, this.alice));
+    }
+
+    @Test
+    void repeatedRequestsRestartTheTimeout() {
+        this.reciprocalManager.request(this.highFive, this.alice, this.bob);
+        tick(30);
+        this.reciprocalManager.request(this.highFive, this.alice, this.bob);
+
+        assertEquals(1, this.reciprocalManager.getPending());
+
+        // Past the first timeout, but the replaced request's timeout was cancelled.
+        tick(30);
+        assertTrue(this.reciprocalManager.complete(this.highFive, this.bob, this.alice));
+    }
+
+    @Test
+    void leavingCancelsRequestsOnBothSides() {
+        final Player carol = mockPlayer("Carol");
+        this.reciprocalManager.request(this.highFive, this.alice, this.bob);
+        this.reciprocalManager.request(this.highFive, carol, this.alice);
+        this.reciprocalManager.request(this.highFive, this.bob, carol);
+
+        this.reciprocalManager.cancel(this.alice);
+
+        assertEquals(1, this.reciprocalManager.getPending());
+        assertFalse(this.reciprocalManager.complete(this.highFive, this.alice, carol));
+        assertTrue(this.reciprocalManager.complete(this.highFive, carol, this.bob));
+    }
+
+    /**
+     * Advances the timing wheel.
+     * @param ticks Number of ticks to advance.
+     */
+    private void tick(final int ticks) {
+        for(int i = 0; i < ticks; i++) {
+            this.timingWheel.tick();
+        }
+    }
+
+    /**
+     * Creates a plugin that schedules on a given timing wheel.
+     * @param timingWheel Timing wheel of the plugin.
+     * @return Mocked plugin.
+     */
+    private static ChatActionsPlugin mockTimingPlugin(final TimingWheel timingWheel) {
+        final ChatActionsPlugin plugin = mockPlugin(new YamlConfiguration(), null);
+        when(plugin.getTimingWheel()).thenReturn(timingWheel);
+        return plugin;
+    }
+
+    /**
+     * Creates a reciprocal action.
+     * @param name Name of the action.
+     * @param timeout Seconds the target has to return the action.
+     * @return Mocked action.
+     */
+    private static Action mockReciprocalAction(final String name, final int timeout) {
+        final Action action = mockAction(name);
+        when(action.getReciprocalTimeout()).thenReturn(timeout);
+        return action;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.statistics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests the bounded top-N leaderboard kept for each statistic.
+ */
+class LeaderboardTest {
+    private static final UUID ALICE = new UUID(1, 1);
+    private static final UUID BOB = new UUID(2, 2);
+    private static final UUID CAROL = new UUID(3, 3);
+    private static final UUID DAVE = new UUID(4, 4);
+
+    @Test
+    void ranksPlayersFromHighestToLowest() {
+        final Leaderboard leaderboard = new Leaderboard(5);
+        leaderboard.update(ALICE, "Alice", 3);
+        leaderboard.update(BOB, "Bob", 7);
+        leaderboard.update(CAROL, "Carol", 5);
+
+        assertEquals(List.of("Bob", "Carol", "Alice"), names(leaderboard));
+        assertEquals("Bob", leaderboard.getEntry(1).getPlayerName());
+        assertEquals(3, leaderboard.getEntry(3).getValue());
+        assertNull(leaderboard.getEntry(0));
+        assertNull(leaderboard.getEntry(4));
+    }
+
+    @Test
+    void onlyKeepsTheTopEntries() {
+        final Leaderboard leaderboard = new Leaderboard(2);
+        leaderboard.update(ALICE, "Alice", 3);
+        leaderboard.update(BOB, "Bob", 7);
+
+        // Ties with the lowest entry don't get on.
+        leaderboard.update(CAROL, "Carol", 3);
+        assertEquals(List.of("Bob", "Alice"), names(leaderboard));
+
+        leaderboard.update(DAVE, "Dave", 4);
+        assertEquals(List.of("Bob", "Dave"), names(leaderboard));
+
+        // Players who were pushed off can come back.
+        leaderboard.update(ALICE, "Alice", 10);
+        assertEquals(List.of("Alice", "Bob"), names(leaderboard));
+    }
+
+    @Test
+    void movesPlayersWhoAreAlreadyListed() {
+        final Leaderboard leaderboard = new Leaderboard(3);
+        leaderboard.update(ALICE, "Alice", 1);
+        leaderboard.update(BOB, "Bob", 2);
+        assertEquals("Bob", leaderboard.getEntry(1).getPlayerName());
+
+        leaderboard.update(ALICE, "Alice", 5);
+        assertEquals(List.of("Alice", "Bob"), names(leaderboard));
+        assertEquals(5, leaderboard.getEntry(1).getValue());
+    }
+
+    @Test
+    void ignoresStaleAndEmptyCounts() {
+        final Leaderboard leaderboard = new Leaderboard(3);
+        leaderboard.update(ALICE, "Alice", 5);
+        leaderboard.update(ALICE, "Alice", 2);
+        leaderboard.update(BOB, "Bob", 0);
+
+        assertEquals(1, leaderboard.getEntries().length);
+        assertEquals(5, leaderboard.getEntry(1).getValue());
+    }
+
+    @Test
+    void tiesAreRankedByUUID() {
+        final Leaderboard leaderboard = new Leaderboard(3);
+        leaderboard.update(CAROL, "Carol", 4);
+        leaderboard.update(ALICE, "Alice", 4);
+        leaderboard.update(BOB, "Bob", 4);
+
+        assertEquals(List.of("Alice", "Bob", "Carol"), names(leaderboard));
+    }
+
+    /**
+     * Gets the names on a leaderboard, in ranked order.
+     * @param leaderboard Leaderboard to read.
+     * @return Player names, highest first.
+     */
+    private static List<String> names(final Leaderboard leaderboard) {
+        return Arrays.stream(leaderboard.getEntries()).map(Leaderboard.Entry::getPlayerName).toList();
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.utils;
+
+import net.jadedmc.chatactions.ChatActionsPlugin;
+import net.jadedmc.chatactions.TestFixtures;
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.platform.bukkit.BukkitAudiences;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.network.protocol.game.ClientboundSystemChatPacket;
+import net.minecraft.server.level.EntityPlayer;
+import net.minecraft.server.network.PlayerConnection;
+import org.bukkit.Server;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.craftbukkit.v1_20_R3.CraftServer;
+import org.bukkit.craftbukkit.v1_20_R3.entity.CraftPlayer;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests that broadcasts find the server's chat packets and send one packet to every player,
+ * using stand-ins for the server's classes with the same names and obfuscated members.
+ */
+class PacketUtilsTest {
+    private final BukkitAudiences audiences = mock(BukkitAudiences.class);
+    private final Audience audience = mock(Audience.class);
+
+    @AfterEach
+    void tearDown() {
+        ChatUtils.disable();
+    }
+
+    @Test
+    void broadcastsSendOnePacketToEveryPlayer() {
+        final ChatActionsPlugin plugin = mockPlugin(mock(CraftServer.class), false);
+        ChatUtils.enable(plugin, this.audiences);
+
+        final List<PlayerConnection> connections = new ArrayList<>();
+        final List<Player> players = new ArrayList<>();
+        for(int i = 0; i < 3; i++) {
+            final PlayerConnection connection = new PlayerConnection();
+            connections.add(connection);
+            players.add(mockPlayer(connection));
+        }
+
+        ChatUtils.broadcast(players, "<gold>Everyone waves!");
+
+        final Packet packet = connections.get(0).getSent().get(0);
+        final ClientboundSystemChatPacket chatPacket = assertInstanceOf(ClientboundSystemChatPacket.class, packet);
+        assertEquals(GsonComponentSerializer.gson().serialize(ChatUtils.translate("<gold>Everyone waves!")), chatPacket.getContent().getJson());
+        assertFalse(chatPacket.isOverlay());
+
+        for(final PlayerConnection connection : connections) {
+            assertEquals(1, connection.getSent().size());
+            assertSame(packet, connection.getSent().get(0));
+        }
+        verify(this.audiences, never()).sender(any());
+    }
+
+    @Test
+    void onlySendsThroughThePlayersConnection() {
+        PacketUtils.enable(mockPlugin(mock(CraftServer.class), false));
+
+        final PlayerConnection connection = new PlayerConnection();
+        final EntityPlayer handle = new EntityPlayer(connection);
+        final CraftPlayer player = mock(CraftPlayer.class);
+        when(player.getHandle()).thenReturn(handle);
+
+        final Object packet = PacketUtils.createChatPacket("{\"text\":\"Hi\"}");
+        assertNotNull(packet);
+        assertTrue(PacketUtils.send(player, packet));
+
+        assertEquals(List.of(packet), connection.getSent());
+        assertTrue(handle.getWorld().getSent().isEmpty());
+    }
+
+    @Test
+    void playersWithoutAConnectionFallBackToAdventure() {
+        final ChatActionsPlugin plugin = mockPlugin(mock(CraftServer.class), false);
+        ChatUtils.enable(plugin, this.audiences);
+
+        final PlayerConnection connection = new PlayerConnection();
+        final Player connected = mockPlayer(connection);
+        final Player joining = mockPlayer(null);
+
+        ChatUtils.broadcast(List.of(connected, joining), "<gold>Everyone waves!");
+
+        assertEquals(1, connection.getSent().size());
+        verify(this.audiences, never()).sender(connected);
+        verify(this.audiences).sender(joining);
+        verify(this.audience).sendMessage(any(Component.class));
+    }
+
+    @Test
+    void unknownServersFallBackToAdventure() {
+        final ChatActionsPlugin plugin = mockPlugin(mock(Server.class), false);
+        ChatUtils.enable(plugin, this.audiences);
+        assertNull(PacketUtils.createChatPacket("{\"text\":\"Hi\"}"));
+
+        final List<Player> players = List.of(mockPlayer(new PlayerConnection()), mockPlayer(new PlayerConnection()));
+        ChatUtils.broadcast(players, "<gold>Everyone waves!");
+
+        // The message is still only translated once for both players.
+        verify(this.audiences, times(2)).sender(any());
+        verify(this.audience, times(2)).sendMessage(any(Component.class));
+    }
+
+    @Test
+    void percentSignsAloneDontMakeMessagesDifferPerPlayer() {
+        final ChatActionsPlugin plugin = mockPlugin(mock(CraftServer.class), true);
+        ChatUtils.enable(plugin, this.audiences);
+
+        final PlayerConnection first = new PlayerConnection();
+        final PlayerConnection second = new PlayerConnection();
+        ChatUtils.broadcast(List.of(mockPlayer(first), mockPlayer(second)), "<gold>Server is 100% ready!");
+
+        assertEquals(1, first.getSent().size());
+        assertSame(first.getSent().get(0), second.getSent().get(0));
+    }
+
+    /**
+     * Creates a plugin that has serialized broadcasts enabled.
+     * @param server Server the plugin is running on.
+     * @param placeholderAPI Whether PlaceholderAPI is installed.
+     * @return Mocked plugin.
+     */
+    private ChatActionsPlugin mockPlugin(final Server server, final boolean placeholderAPI) {
+        final YamlConfiguration config = new YamlConfiguration();
+        config.set("serialized-broadcasts", true);
+
+        final ChatActionsPlugin plugin = TestFixtures.mockPlugin(config, null, placeholderAPI);
+        when(plugin.getServer()).thenReturn(server);
+        when(this.audiences.sender(any())).thenReturn(this.audience);
+        return plugin;
+    }
+
+    /**
+     * Creates a player on the stand-in server.
+     * @param connection Connection of the player, null if they are still joining.
+     * @return Mocked player.
+     */
+    private static Player mockPlayer(final PlayerConnection connection) {
+        final CraftPlayer player = mock(CraftPlayer.class);
+        when(player.getHandle()).thenReturn(new EntityPlayer(connection));
+        return player;
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.chatactions.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that the timing wheel runs every task on exactly the tick it is due.
+ */
+class TimingWheelTest {
+    @Test
+    void runsTasksOnTheTickTheyAreDue() {
+        // A small wheel, so most delays need more than one turn.
+        final TimingWheel timingWheel = new TimingWheel(4);
+        final long[] ranAt = new long[40];
+        final long[] tick = {0};
+
+        for(int delay = 1; delay < ranAt.length; delay++) {
+            final int index = delay;
+            timingWheel.schedule(() -> ranAt[index] = tick[0], delay);
+        }
+
+        for(tick[0] = 1; tick[0] < ranAt.length; tick[0]++) {
+            timingWheel.tick();
+        }
+
+        for(int delay = 1; delay < ranAt.length; delay++) {
+            assertEquals(delay, ranAt[delay], "Task with a delay of " + delay);
+        }
+        assertEquals(0, timingWheel.getPending());
+    }
+
+    @Test
+    void delaysAreCountedFromWhenTheTaskIsScheduled() {
+        final TimingWheel timingWheel = new TimingWheel(8);
+        final List<Long> ran = new ArrayList<>();
+        final long[] tick = {0};
+
+        // Move the wheel part way around first.
+        for(int i = 0; i < 13; i++) {
+            timingWheel.tick();
+            tick[0]++;
+        }
+
+        timingWheel.schedule(() -> ran.add(tick[0]), 8);
+        timingWheel.schedule(() -> ran.add(tick[0]), 21);
+
+        for(int i = 0; i < 30; i++) {
+            tick[0]++;
+            timingWheel.tick();
+        }
+
+        assertEquals(List.of(21L, 34L), ran);
+    }
+
+    @Test
+    void sizeIsRoundedUpToAPowerOfTwo() {
+        // 100 buckets become 128, so a delay of 128 takes exactly one turn.
+        final TimingWheel timingWheel = new TimingWheel(100);
+        final boolean[] ran = {false};
+        timingWheel.schedule(() -> ran[0] = true, 128);
+
+        for(int i = 0; i < 127; i++) {
+            timingWheel.tick();
+        }
+        assertFalse(ran[0]);
+
+        timingWheel.tick();
+        assertTrue(ran[0]);
+    }
+
+    @Test
+    void delaysBelowOneRunOnTheNextTick() {
+        final TimingWheel timingWheel = new TimingWheel(4);
+        final int[] runs = {0};
+        timingWheel.schedule(() -> runs[0]++, 0);
+        timingWheel.schedule(() -> runs[0]++, -5);
+
+        timingWheel.tick();
+        assertEquals(2, runs[0]);
+    }
+
+    @Test
+    void cancelledTasksDoNotRun() {
+        final TimingWheel timingWheel = new TimingWheel(4);
+        final int[] runs = {0};
+        final TimingWheel.Timeout timeout = timingWheel.schedule(() -> runs[0]++, 6);
+        timingWheel.schedule(() -> runs[0]++, 6);
+
+        timeout.cancel();
+        assertTrue(timeout.isDone());
+        assertEquals(2, timingWheel.getPending());
+
+        for(int i = 0; i < 6; i++) {
+            timingWheel.tick();
+        }
+
+        assertEquals(1, runs[0]);
+        assertEquals(0, timingWheel.getPending());
+    }
+
+    @Test
+    void tasksScheduledWhileRunningWaitForTheirOwnTick() {
+        final TimingWheel timingWheel = new TimingWheel(4);
+        final List<Integer> ran = new ArrayList<>();
+        final int[] tick = {0};
+
+        // Lands in the bucket being visited, but a full turn later.
+        timingWheel.schedule(() -> {
+            ran.add(tick[0]);
+            timingWheel.schedule(() -> ran.add(tick[0]), 4);
+        }, 1);
+
+        for(tick[0] = 1; tick[0] <= 8; tick[0]++) {
+            timingWheel.tick();
+        }
+
+        assertEquals(List.of(1, 5), ran);
+    }
+
+    @Test
+    void failingTaskDoesNotStopTheOthers() {
+        final TimingWheel timingWheel = new TimingWheel(4);
+        final boolean[] ran = {false};
+        timingWheel.schedule(() -> {
+            throw new IllegalStateException("Expected by the test");
+        }, 2);
+        timingWheel.schedule(() -> ran[0] = true, 2);
+
+        timingWheel.tick();
+        timingWheel.tick();
+
+        assertTrue(ran[0]);
+        assertEquals(0, timingWheel.getPending());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,64 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.minecraft.network.protocol.game;
+
+import net.minecraft.network.chat.IChatBaseComponent;
+import net.minecraft.network.protocol.Packet;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Stand-in for the server's system chat packet.
+ */
+public class ClientboundSystemChatPacket implements Packet {
+    private final IChatBaseComponent content;
+    private final boolean overlay;
+
+    /**
+     * Creates the packet.
+     * @param content Message being sent.
+     * @param overlay Whether the message is shown above the hotbar instead of in chat.
+     */
+    public ClientboundSystemChatPacket(@NotNull final IChatBaseComponent content, final boolean overlay) {
+        this.content = content;
+        this.overlay = overlay;
+    }
+
+    /**
+     * Gets the message being sent.
+     * @return Packet content.
+     */
+    @NotNull
+    public IChatBaseComponent getContent() {
+        return this.content;
+    }
+
+    /**
+     * Get if the message is shown above the hotbar instead of in chat.
+     * @return Whether the packet is an overlay.
+     */
+    public boolean isOverlay() {
+        return this.overlay;
+    }
+}
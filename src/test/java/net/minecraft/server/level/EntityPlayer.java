@@ -0,0 +1,53 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.minecraft.server.level;
+
+import net.minecraft.server.network.PlayerConnection;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Stand-in for the server's player, with obfuscated field names like on Spigot servers.
+ * The world is declared before the connection, so the connection has to be told apart by its type.
+ */
+public class EntityPlayer {
+    private final WorldServer a = new WorldServer();
+    private final PlayerConnection c;
+
+    /**
+     * Creates the player.
+     * @param connection Connection of the player, null if they are still joining.
+     */
+    public EntityPlayer(@Nullable final PlayerConnection connection) {
+        this.c = connection;
+    }
+
+    /**
+     * Gets the world the player is in.
+     * @return Player world.
+     */
+    public WorldServer getWorld() {
+        return this.a;
+    }
+}
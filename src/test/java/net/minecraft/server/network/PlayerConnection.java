@@ -0,0 +1,57 @@
+/*
+ * This file is part of ChatActions, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.minecraft.server.network;
+
+import net.minecraft.network.PacketListener;
+import net.minecraft.network.protocol.Packet;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stand-in for a player's connection, which keeps every packet sent through it.
+ * Its send method is obfuscated, like it is on Spigot servers.
+ */
+public class PlayerConnection implements PacketListener {
+    private final List<Packet> sent = new ArrayList<>();
+
+    /**
+     * Sends a packet to the player.
+     * @param packet Packet to send.
+     */
+    public void b(@NotNull final Packet packet) {
+        this.sent.add(packet);
+    }
+
+    /**
+     * Gets every packet sent through the connection.
+     * @return Sent packets.
+     */
+    @NotNull
+    public List<Packet> getSent() {
+        return this.sent;
+    }
+}